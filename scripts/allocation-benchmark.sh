@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Compares bytes allocated per cached GET /users/{id} on the old DTO path (Redis value ->
+# UserResponseDto -> Jackson -> gzip per response) and the byte path that writes the cached
+# bodies as they are. Small and large bodies, identity and gzip clients.
+#
+# Needs Maven and network access (or a populated ~/.m2) to resolve the test classpath.
+# The harness itself is src/test/java/com/ecom/userservice/cache/ResponseAllocationBenchmark.java.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CLASSPATH_FILE="$(mktemp)"
+trap 'rm -f "$CLASSPATH_FILE"' EXIT
+
+./mvnw -q -DskipTests test-compile dependency:build-classpath \
+  -Dmdep.includeScope=test -Dmdep.outputFile="$CLASSPATH_FILE"
+java -cp "target/test-classes:target/classes:$(cat "$CLASSPATH_FILE")" \
+  com.ecom.userservice.cache.ResponseAllocationBenchmark
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Compares keyset paging (what GET /users does) with LIMIT/OFFSET at increasing depths.
+#
+#   scripts/seed-users.sh                  -> 10M rows in USERS (takes a while)
+#   scripts/pagination-benchmark.sh
+#
+# For each depth both queries fetch the same page of PAGE rows ordered by id: OFFSET skips
+# DEPTH rows, keyset seeks past the id of the last row before the page (looked up once,
+# untimed, as a client would hold it in its cursor). Each query runs RUNS times in one
+# session and the average server-side time is reported, so connection setup is not counted.
+# Connection settings as in seed-users.sh.
+set -euo pipefail
+
+DATABASE="${MYSQL_DATABASE:-userservice}"
+TABLE="${TABLE:-USERS}"
+RUNS="${RUNS:-5}"
+PAGE="${PAGE:-50}"
+DEPTHS="${DEPTHS:-0 10000 100000 1000000 5000000 9999000}"
+
+sql() {
+  mysql -u "${MYSQL_USER:-root}" -N -s "$DATABASE" -e "$1"
+}
+
+# Average milliseconds of a page query; the count(*) wrapper keeps the rows off the wire.
+timed() {
+  local query="$1" script="" i
+  for i in $(seq "$RUNS"); do
+    script+="set @t$i = now(6); select count(*) into @rows from ($query) page; set @d$i = timestampdiff(microsecond, @t$i, now(6));"
+  done
+  script+="select (0"
+  for i in $(seq "$RUNS"); do script+=" + @d$i"; done
+  script+=") / $RUNS / 1000;"
+  sql "$script"
+}
+
+ROW_COUNT="$(sql "select count(*) from $TABLE")"
+echo "$TABLE: $ROW_COUNT rows, page size $PAGE, $RUNS runs per query"
+printf "%10s %14s %14s\n" "depth" "offset (ms)" "keyset (ms)"
+for depth in $DEPTHS; do
+  if ((depth >= ROW_COUNT)); then
+    continue
+  fi
+  after=""
+  if ((depth > 0)); then
+    after="$(sql "select id from $TABLE order by id limit 1 offset $((depth - 1))")"
+  fi
+  offset_ms="$(timed "select id, username, email from $TABLE order by id limit $PAGE offset $depth")"
+  keyset_ms="$(timed "select id, username, email from $TABLE where id > '$after' order by id limit $PAGE")"
+  printf "%10d %14.2f %14.2f\n" "$depth" "$offset_ms" "$keyset_ms"
+done
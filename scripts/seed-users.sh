@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Fills the USERS table of a MySQL database with synthetic users for the pagination benchmark.
+#
+#   MYSQL_DATABASE=userservice ROWS=10000000 scripts/seed-users.sh
+#
+# The table must already exist (start the service once with ddl-auto=update, or apply
+# src/main/resources/sharding/shard-schema.sql). Ids are UUID-shaped strings derived from a
+# hash of the row number, so they arrive in random order like client-supplied ids do. Rows
+# are inserted in batches of BATCH; re-running skips numbers that are already present.
+# Connection settings are taken from the usual MYSQL_HOST / MYSQL_TCP_PORT / MYSQL_PWD
+# environment variables and MYSQL_USER (default root).
+set -euo pipefail
+
+DATABASE="${MYSQL_DATABASE:-userservice}"
+TABLE="${TABLE:-USERS}"
+ROWS="${ROWS:-10000000}"
+BATCH="${BATCH:-1000000}"
+
+sql() {
+  mysql -u "${MYSQL_USER:-root}" -N -s "$DATABASE" -e "$1"
+}
+
+for ((start = 0; start < ROWS; start += BATCH)); do
+  count=$((ROWS - start < BATCH ? ROWS - start : BATCH))
+  sql "set session cte_max_recursion_depth = $count;
+       insert ignore into $TABLE (id, username, email, created_at, updated_at)
+       with recursive seq (n) as (select $start union all select n + 1 from seq where n < $((start + count - 1)))
+       select insert(insert(insert(insert(md5(n), 21, 0, '-'), 17, 0, '-'), 13, 0, '-'), 9, 0, '-'),
+              concat('user', n), concat('user', n, '@example.com'), now(6), now(6)
+       from seq;"
+  echo "inserted rows $start..$((start + count - 1))"
+done
+sql "analyze table $TABLE" >/dev/null
+echo "$TABLE now holds $(sql "select count(*) from $TABLE") rows"
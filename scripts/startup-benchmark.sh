@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the JVM, CDS and native builds.
+#
+# Build the artifacts first:
+#   ./mvnw -DskipTests package                 -> target/*.jar (plain JVM)
+#   ./mvnw -DskipTests -Pcds package           -> target/cds/ (AOT + CDS archive)
+#   ./mvnw -DskipTests -Pnative native:compile -> target/user-service
+#
+# Each mode is started RUNS times with the "training" profile, so no MySQL, Redis or
+# Eureka is needed. Startup time is the one Spring Boot logs itself. RSS is sampled
+# right after that line appears.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS="${RUNS:-5}"
+ARTIFACT="$(sed -n 's:.*<artifactId>\(UserService[^<]*\)</artifactId>.*:\1:p' pom.xml | head -1)"
+VERSION="$(sed -n 's:^    <version>\([^<]*\)</version>.*:\1:p' pom.xml | head -1)"
+FAT_JAR="target/${ARTIFACT}-${VERSION}.jar"
+CDS_JAR="target/cds/${ARTIFACT}-${VERSION}-cds.jar"
+CDS_ARCHIVE="target/cds/application.jsa"
+NATIVE_BIN="target/user-service"
+LOG="$(mktemp)"
+trap 'rm -f "$LOG"' EXIT
+
+measure() {
+  local mode="$1"; shift
+  local total_ms=0 total_rss=0
+  for _ in $(seq "$RUNS"); do
+    "$@" --spring.profiles.active=training >"$LOG" 2>&1 &
+    local pid=$!
+    until grep -q "Started UserServiceApplication" "$LOG"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$mode: process exited before startup completed, see output below" >&2
+        cat "$LOG" >&2
+        return 1
+      fi
+      sleep 0.05
+    done
+    local seconds rss
+    seconds="$(sed -n 's/.*Started UserServiceApplication in \([0-9.]*\) seconds.*/\1/p' "$LOG")"
+    rss="$(ps -o rss= -p "$pid" | tr -d ' ')"
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+    total_ms=$(awk -v t="$total_ms" -v s="$seconds" 'BEGIN { print t + s * 1000 }')
+    total_rss=$((total_rss + rss))
+  done
+  awk -v m="$mode" -v t="$total_ms" -v r="$total_rss" -v n="$RUNS" \
+    'BEGIN { printf "%-8s %10.0f ms %10.1f MB\n", m, t / n, r / n / 1024 }'
+}
+
+printf "%-8s %13s %13s\n" "mode" "startup" "RSS"
+[[ -f "$FAT_JAR" ]] && measure jvm java -jar "$FAT_JAR"
+[[ -f "$CDS_ARCHIVE" ]] && measure cds java -XX:SharedArchiveFile="$CDS_ARCHIVE" -Dspring.aot.enabled=true -jar "$CDS_JAR"
+[[ -x "$NATIVE_BIN" ]] && measure native "$NATIVE_BIN"
+exit 0
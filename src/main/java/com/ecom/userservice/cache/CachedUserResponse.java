@@ -0,0 +1,18 @@
+package com.ecom.userservice.cache;
+
+import com.ecom.userservice.dtos.UserVersionDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Final GET /users/{id} representation, kept both as raw JSON and gzip-compressed
+ * so the controller can write it out without another Jackson pass. {@code gzip} is null
+ * for bodies too small to be worth compressing.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedUserResponse {
+    private final UserVersionDto version;
+    private final byte[] json;
+    private final byte[] gzip;
+}
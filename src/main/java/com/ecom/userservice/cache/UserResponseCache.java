@@ -0,0 +1,144 @@
+package com.ecom.userservice.cache;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.ecom.userservice.services.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the serialized response bytes for a user, together with the validators they were
+ * rendered for, in one Redis hash per user ({@code USER_RESPONSES:USER<id>}). A single HMGET
+ * therefore answers both the conditional request and the body. Entries are rendered from one
+ * database read of the user and its version ({@code UserService#getVersionedUserDetails}), are
+ * dropped when this service changes the user, and expire after {@link #ENTRY_TTL}. A write made
+ * around the service therefore shows up, body and validators together, within that TTL plus the
+ * lifetime of the user-queries region the read may be answered from (with sharding enabled the
+ * query cache is off, so the read always goes to the database). Redis access shares the
+ * service's circuit breaker; when it is open or Redis fails, lookups miss and writes are skipped.
+ */
+@Component
+public class UserResponseCache {
+
+    private static final String KEY_PREFIX = "USER_RESPONSES:USER";
+    // Same lifetime as the user-queries region a miss may be answered from when not sharded.
+    private static final Duration ENTRY_TTL = Duration.ofSeconds(30);
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String JSON = "json";
+    private static final String GZIP = "gzip";
+    private static final List<String> FIELDS = List.of(ETAG, LAST_MODIFIED, JSON, GZIP);
+    // Like server.compression.min-response-size: smaller bodies are stored and served as
+    // identity only, since gzip framing and the client's inflate cost outweigh the savings.
+    static final int GZIP_MIN_SIZE = 1024;
+    private static final Logger log = LoggerFactory.getLogger(UserResponseCache.class);
+
+    private final RedisTemplate<String, byte[]> userResponseRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CircuitBreaker redisCircuitBreaker;
+
+    public UserResponseCache(RedisTemplate<String, byte[]> userResponseRedisTemplate, ObjectMapper objectMapper,
+                             CircuitBreaker redisCircuitBreaker) {
+        this.userResponseRedisTemplate = userResponseRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+    }
+
+    /** @return the cached response with the version it was rendered for, or null on a miss */
+    public CachedUserResponse get(String id) {
+        List<byte[]> values;
+        try {
+            values = redisCircuitBreaker.executeSupplier(() -> hash().multiGet(key(id), FIELDS));
+        } catch (CallNotPermittedException ex) {
+            return null;
+        } catch (RuntimeException ex) {
+            log.warn("Redis read of "+key(id)+" failed: "+ex.getMessage());
+            return null;
+        }
+        if (values == null || values.size() != FIELDS.size() || values.contains(null)) {
+            return null;
+        }
+        UserVersionDto version = new UserVersionDto(new String(values.get(0), StandardCharsets.UTF_8),
+                Long.parseLong(new String(values.get(1), StandardCharsets.UTF_8)));
+        return new CachedUserResponse(version, values.get(2), values.get(3).length == 0 ? null : values.get(3));
+    }
+
+    public CachedUserResponse put(String id, UserVersionDto version, UserResponseDto user) {
+        byte[] json;
+        try {
+            // Same ObjectMapper Spring MVC writes responses with, so the bytes are identical.
+            json = objectMapper.writeValueAsBytes(user);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize user " + id, ex);
+        }
+        byte[] gzip = json.length >= GZIP_MIN_SIZE ? gzip(json) : null;
+        // An empty gzip field marks an identity-only entry; writing it every time also
+        // overwrites the compressed body of a larger earlier version.
+        Map<String, byte[]> fields = Map.of(
+                ETAG, version.getEtag().getBytes(StandardCharsets.UTF_8),
+                LAST_MODIFIED, Long.toString(version.getLastModified()).getBytes(StandardCharsets.UTF_8),
+                JSON, json,
+                GZIP, gzip != null ? gzip : new byte[0]);
+        try {
+            redisCircuitBreaker.executeRunnable(() -> {
+                hash().putAll(key(id), fields);
+                userResponseRedisTemplate.expire(key(id), ENTRY_TTL);
+            });
+        } catch (CallNotPermittedException ex) {
+            // Breaker open: serve the freshly rendered bytes without caching them.
+        } catch (RuntimeException ex) {
+            log.warn("Redis write of "+key(id)+" failed: "+ex.getMessage());
+        }
+        return new CachedUserResponse(version, json, gzip);
+    }
+
+    public void evict(String id) {
+        try {
+            redisCircuitBreaker.executeRunnable(() -> userResponseRedisTemplate.delete(key(id)));
+        } catch (CallNotPermittedException ex) {
+            // Breaker open: the entry expires on its own.
+        } catch (RuntimeException ex) {
+            log.warn("Redis delete of "+key(id)+" failed: "+ex.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.getUser().getId());
+    }
+
+    private HashOperations<String, String, byte[]> hash() {
+        return userResponseRedisTemplate.opsForHash();
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static String key(String id) {
+        return KEY_PREFIX + id;
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecom.userservice.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limit driven by latency. The limit grows by one for each request that
+ * completes at close to no-load latency while the limit is actually in use, and shrinks
+ * multiplicatively when smoothed latency climbs past the tolerance or a request fails on
+ * the database, at most once per smoothed round trip so that one burst of slow requests
+ * counts as a single congestion signal. Requests over the limit are rejected at once instead
+ * of queuing.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    // Samples per baseline window. The no-load latency is re-learned every window, so it can
+    // follow a database that has become slower for good instead of shedding load forever. Only
+    // samples taken while less than half the limit is in use count: under saturation latency
+    // sits near the tolerance, and learning from it would raise the baseline window by window.
+    private static final int BASELINE_WINDOW = 1000;
+    private static final double SMOOTHING = 0.1;
+
+    private final String name;
+    private final ConcurrencyLimitProperties.Limit config;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int limit;
+
+    // Guarded by this.
+    private double smoothedRtt;
+    private double windowMinRtt = Double.MAX_VALUE;
+    private double baselineRtt = Double.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties.Limit config) {
+        this(name, config, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties.Limit config, LongSupplier nanoClock) {
+        this.name = name;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.limit = config.getInitialLimit();
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1.0);
+    }
+
+    /**
+     * Takes a slot only while fewer than {@code share} of the limit are in use, so lower
+     * priority callers are turned away before the limit itself is reached.
+     */
+    public boolean tryAcquire(double share) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= Math.max(1, (int) (limit * share))) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire(double)} and feeds the request's latency back
+     * into the limit. {@code dropped} marks requests that failed because the backend was
+     * overloaded; those always back off.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(rttNanos, dropped, inFlightAtCompletion);
+    }
+
+    private synchronized void onSample(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+        // Smoothing keeps the mix of fast cache hits and slower database reads from reading as
+        // congestion on every miss.
+        smoothedRtt = smoothedRtt == 0 ? rttNanos : smoothedRtt + (rttNanos - smoothedRtt) * SMOOTHING;
+        int current = limit;
+        // Until a first baseline exists every sample counts, so a limiter that starts out
+        // saturated still has something to compare against.
+        if (inFlightAtCompletion * 2 < current || baselineRtt == Double.MAX_VALUE) {
+            windowMinRtt = Math.min(windowMinRtt, smoothedRtt);
+        }
+        if (++windowSamples == BASELINE_WINDOW) {
+            // A window without a lightly loaded sample keeps the baseline it had.
+            if (windowMinRtt != Double.MAX_VALUE) {
+                baselineRtt = windowMinRtt;
+            }
+            windowMinRtt = Double.MAX_VALUE;
+            windowSamples = 0;
+        }
+        double noLoadRtt = Math.min(baselineRtt, windowMinRtt);
+        if (dropped || smoothedRtt > noLoadRtt * config.getLatencyTolerance()) {
+            // Requests already in flight when the limit was cut report the same congestion;
+            // only back off again once they have had a round trip to drain.
+            long now = nanoClock.getAsLong();
+            if (!decreased || now - lastDecreaseNanos >= smoothedRtt) {
+                limit = Math.max(config.getMinLimit(), (int) (current * config.getBackoffRatio()));
+                lastDecreaseNanos = now;
+                decreased = true;
+            }
+        } else if (inFlightAtCompletion * 2 >= current) {
+            // Only probe upwards when at least half the limit is in use; an idle limiter
+            // has learned nothing about how much more the backend can take.
+            limit = Math.min(config.getMaxLimit(), current + 1);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("userservice.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("limiter", name)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("userservice.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("limiter", name)
+                .register(registry);
+        FunctionCounter.builder("userservice.concurrency.rejected", this, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("limiter", name)
+                .description("Requests rejected because the concurrency limit was reached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecom.userservice.concurrency;
+
+import com.ecom.userservice.exceptions.ConcurrencyLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpMethod;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests to the user endpoints through the shared limiter, reads only up to their
+ * share of it, and reports each request's latency back when it completes.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final double readShare;
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter, double readShare, int retryAfterSeconds) {
+        this.limiter = limiter;
+        this.readShare = readShare;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean read = isRead(request);
+        if (!limiter.tryAcquire(read ? readShare : 1.0)) {
+            throw new ConcurrencyLimitExceededException("Too many concurrent " + (read ? "read" : "registration") + " requests",
+                    retryAfterSeconds);
+        }
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER_ATTRIBUTE);
+        if (limiter == null) {
+            return;
+        }
+        long rttNanos = System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE);
+        // Exceptions turned into responses by GlobalExceptionHandler are not passed in as ex.
+        Object failure = ex != null ? ex : request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        limiter.release(rttNanos, isOverload(failure));
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    // Database and connection-pool failures mean the backend is saturated; a missing user or a
+    // duplicate registration says nothing about load.
+    private static boolean isOverload(Object failure) {
+        return failure instanceof DataAccessException || failure instanceof TransactionException;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecom.userservice.concurrency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "userservice.concurrency")
+@Data
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    // One limit shared by every request under /users.
+    private Limit limit = new Limit(25, 6, 190, 0.9, 2.0);
+    // Reads (GET /users/**) may fill only this share of the limit while registration may use
+    // all of it, so under overload reads are shed first and registration keeps getting in.
+    private double readShare = 0.8;
+    // Sent back to rejected clients as Retry-After.
+    private int retryAfterSeconds = 1;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        // Multiplicative decrease applied when requests get slow or fail.
+        private double backoffRatio;
+        // Requests count as slow once smoothed latency exceeds the no-load latency by this factor.
+        private double latencyTolerance;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecom.userservice.configuration;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
+import com.ecom.userservice.grpc.proto.GetUserRequest;
+import com.ecom.userservice.grpc.proto.GetUsersRequest;
+import com.ecom.userservice.grpc.proto.GetUsersResponse;
+import com.ecom.userservice.grpc.proto.UserResponse;
+import com.ecom.userservice.grpc.proto.WatchUsersRequest;
+import com.ecom.userservice.models.Address;
+import com.ecom.userservice.models.BaseClass;
+import com.ecom.userservice.models.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for the native image that Spring AOT cannot infer on its own.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // The only type stored in Redis through GenericJackson2JsonRedisSerializer (the USERS
+        // hash). It writes the concrete class name into each value and instantiates it
+        // reflectively when reading it back.
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), UserResponseDto.class);
+
+        // Targets of JPQL constructor expressions in UserRepository; Hibernate looks up and
+        // calls their constructors reflectively.
+        for (Class<?> projection : new Class<?>[]{UserResponseDto.class, VersionedUserDto.class}) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+
+        // Lombok-generated accessors and constructors on the entities.
+        for (Class<?> entity : new Class<?>[]{User.class, Address.class, BaseClass.class}) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Generated messages are parsed and written without reflection, but protobuf resolves
+        // the accessors of a message and its builder reflectively for descriptor-based calls
+        // such as toString().
+        for (Class<?> message : new Class<?>[]{UserResponse.class, GetUserRequest.class, GetUsersRequest.class,
+                GetUsersResponse.class, WatchUsersRequest.class}) {
+            hints.reflection().registerType(message, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (Class<?> builder : new Class<?>[]{UserResponse.Builder.class, GetUserRequest.Builder.class,
+                GetUsersRequest.Builder.class, GetUsersResponse.Builder.class, WatchUsersRequest.Builder.class}) {
+            hints.reflection().registerType(builder, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
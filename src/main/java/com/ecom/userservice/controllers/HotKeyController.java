@@ -0,0 +1,24 @@
+package com.ecom.userservice.controllers;
+
+import com.ecom.userservice.dtos.HotKeyDto;
+import com.ecom.userservice.hotkeys.HotKeyTracker;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/hot-keys")
+public class HotKeyController {
+    private final HotKeyTracker hotKeyTracker;
+
+    public HotKeyController(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @GetMapping("")
+    public List<HotKeyDto> hotKeys() {
+        return hotKeyTracker.hotKeys();
+    }
+}
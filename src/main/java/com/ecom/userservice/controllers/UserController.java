@@ -1,15 +1,26 @@
 package com.ecom.userservice.controllers;
 
+import com.ecom.userservice.cache.CachedUserResponse;
+import com.ecom.userservice.cache.UserResponseCache;
+import com.ecom.userservice.dtos.UserPageResponseDto;
 import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
 import com.ecom.userservice.exceptions.UserNameAlreadyExistsException;
 import com.ecom.userservice.exceptions.UsernameNotFoundException;
+import com.ecom.userservice.hotkeys.HotKeyTracker;
+import com.ecom.userservice.hotkeys.PinnedUserResponseCache;
 import com.ecom.userservice.models.User;
 import com.ecom.userservice.services.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -17,16 +28,65 @@ import java.util.UUID;
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final UserResponseCache userResponseCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final PinnedUserResponseCache pinnedUserResponseCache;
     private static final Logger log = LoggerFactory.getLogger(UserController.class);
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserResponseCache userResponseCache,
+                          HotKeyTracker hotKeyTracker, PinnedUserResponseCache pinnedUserResponseCache) {
         this.userService = userService;
+        this.userResponseCache = userResponseCache;
+        this.hotKeyTracker = hotKeyTracker;
+        this.pinnedUserResponseCache = pinnedUserResponseCache;
+    }
+
+    @GetMapping("")
+    public UserPageResponseDto listUsers(@RequestParam(value = "username", required = false) String usernamePrefix,
+                                         @RequestParam(value = "email", required = false) String emailPrefix,
+                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        log.info("list users");
+        if (usernamePrefix == null && emailPrefix == null) {
+            return userService.listUsers(cursor, limit);
+        }
+        return userService.searchUsers(usernamePrefix, emailPrefix, cursor, limit);
     }
 
     @GetMapping("/{id}")
-    public UserResponseDto getUserDetails(@PathVariable("id") String id) throws UsernameNotFoundException {
+    public ResponseEntity<byte[]> getUserDetails(@PathVariable("id") String id,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                 WebRequest request) throws UsernameNotFoundException {
         log.info("get user details");
-        UserResponseDto user= userService.getUserDetails(id);
-        return user;
+        hotKeyTracker.record(id);
+        // Hot ids are answered from the in-process copy, version included, without a Redis call.
+        CachedUserResponse response = pinnedUserResponseCache.get(id);
+        boolean pinned = response != null;
+        if (!pinned) {
+            // One HMGET returns the validators together with both bodies.
+            response = userResponseCache.get(id);
+        }
+        if (response == null) {
+            // A miss renders the body and takes its validators from the same database row.
+            VersionedUserDto user = userService.getVersionedUserDetails(id);
+            response = userResponseCache.put(id, user.getVersion(), user.getUser());
+        }
+        UserVersionDto version = response.getVersion();
+        boolean gzip = acceptsGzip(acceptEncoding) && response.getGzip() != null;
+        // The gzip body is a different representation, so it gets its own strong ETag.
+        String etag = gzip ? gzipETag(version.getEtag()) : version.getEtag();
+        if (request.checkNotModified(etag, version.getLastModified())) {
+            return null;
+        }
+        if (!pinned) {
+            pinnedUserResponseCache.offer(id, response);
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzip());
+        }
+        return builder.body(response.getJson());
     }
 
     @PostMapping("/register")
@@ -36,5 +96,20 @@ public class UserController {
         return savedUser;
     }
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 
+    private static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.ecom.userservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class HotKeyDto {
+    private String id;
+    // Decayed request count from the sketch; may overestimate, never underestimates.
+    private long estimatedCount;
+    private boolean pinned;
+}
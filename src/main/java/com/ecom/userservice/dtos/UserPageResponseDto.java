@@ -0,0 +1,20 @@
+package com.ecom.userservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UserPageResponseDto {
+    private List<UserResponseDto> users;
+    // Opaque cursor for the next page, null once the last page has been returned.
+    private String nextCursor;
+
+    public UserPageResponseDto() {
+
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecom.userservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UserVersionDto {
+    // Strong, quoted entity tag derived from the user id and its last modification time.
+    private String etag;
+    // Epoch milliseconds of the last modification, used for Last-Modified / If-Modified-Since.
+    private long lastModified;
+
+    public UserVersionDto() {
+
+    }
+
+    public static UserVersionDto of(String id, LocalDateTime lastModified) {
+        long lastModifiedMillis = lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String hash = DigestUtils.md5DigestAsHex((id + ":" + lastModifiedMillis).getBytes(StandardCharsets.UTF_8));
+        return new UserVersionDto("\"" + hash + "\"", lastModifiedMillis);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecom.userservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user together with the version it was read at. Both halves come from the same row, so the
+ * validators sent with a response always describe the body they are sent with.
+ */
+@Getter
+@AllArgsConstructor
+public class VersionedUserDto {
+    private final UserResponseDto user;
+    private final UserVersionDto version;
+
+    // Constructor expression target of UserRepository.findVersionedById.
+    public VersionedUserDto(String id, String name, String email, LocalDateTime lastModified) {
+        this(new UserResponseDto(id, name, email), UserVersionDto.of(id, lastModified));
+    }
+}
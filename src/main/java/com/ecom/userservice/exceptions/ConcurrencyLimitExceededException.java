@@ -0,0 +1,14 @@
+package com.ecom.userservice.exceptions;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
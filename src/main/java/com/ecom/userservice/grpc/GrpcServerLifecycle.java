@@ -0,0 +1,70 @@
+package com.ecom.userservice.grpc;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the internal gRPC server next to the servlet container. Calls on this port do not
+ * go through the Spring Security filter chain, so it must only be reachable from inside
+ * the cluster network.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grpc.server", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final GrpcServerProperties properties;
+    private final UserGrpcService userGrpcService;
+    private volatile Server server;
+
+    public GrpcServerLifecycle(GrpcServerProperties properties, UserGrpcService userGrpcService) {
+        this.properties = properties;
+        this.userGrpcService = userGrpcService;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = Grpc.newServerBuilderForPort(properties.getPort(), InsecureServerCredentials.create())
+                    .addService(userGrpcService)
+                    .build()
+                    .start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + properties.getPort(), ex);
+        }
+        log.info("gRPC server started on port " + server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) return;
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(10, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecom.userservice.grpc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "grpc.server")
+@Data
+public class GrpcServerProperties {
+    private boolean enabled = true;
+    private int port = 9090;
+    // Upper bound on ids accepted by a single GetUsers / WatchUsers call.
+    private int maxBatchSize = 500;
+    // Users a WatchUsers stream may fall behind by while its client reads too slowly.
+    private int maxWatchBacklog = 10_000;
+}
@@ -0,0 +1,110 @@
+package com.ecom.userservice.grpc;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.exceptions.UsernameNotFoundException;
+import com.ecom.userservice.grpc.proto.GetUserRequest;
+import com.ecom.userservice.grpc.proto.GetUsersRequest;
+import com.ecom.userservice.grpc.proto.GetUsersResponse;
+import com.ecom.userservice.grpc.proto.UserResponse;
+import com.ecom.userservice.grpc.proto.UserServiceGrpc;
+import com.ecom.userservice.grpc.proto.WatchUsersRequest;
+import com.ecom.userservice.services.UserService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * gRPC front for {@link UserService}; goes through the same Redis-backed lookups as the
+ * REST controller.
+ */
+@Component
+public class UserGrpcService extends UserServiceGrpc.UserServiceImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(UserGrpcService.class);
+
+    private final UserService userService;
+    private final UserWatchRegistry watchRegistry;
+    private final GrpcServerProperties properties;
+
+    public UserGrpcService(UserService userService, UserWatchRegistry watchRegistry, GrpcServerProperties properties) {
+        this.userService = userService;
+        this.watchRegistry = watchRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void getUser(GetUserRequest request, StreamObserver<UserResponse> responseObserver) {
+        try {
+            UserResponseDto user = userService.getUserDetails(request.getId());
+            responseObserver.onNext(toMessage(user));
+            responseObserver.onCompleted();
+        } catch (UsernameNotFoundException ex) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(ex.getMessage()).asRuntimeException());
+        } catch (RuntimeException ex) {
+            log.error("gRPC GetUser failed for id " + request.getId(), ex);
+            responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getUsers(GetUsersRequest request, StreamObserver<GetUsersResponse> responseObserver) {
+        if (request.getIdsCount() > properties.getMaxBatchSize()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("At most " + properties.getMaxBatchSize() + " ids per call")
+                    .asRuntimeException());
+            return;
+        }
+        try {
+            List<UserResponseDto> users = userService.getUsersDetails(request.getIdsList());
+            GetUsersResponse.Builder response = GetUsersResponse.newBuilder();
+            Set<String> missing = new LinkedHashSet<>(request.getIdsList());
+            for (UserResponseDto user : users) {
+                response.addUsers(toMessage(user));
+                missing.remove(user.getId());
+            }
+            response.addAllMissingIds(missing);
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            log.error("gRPC GetUsers failed", ex);
+            responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void watchUsers(WatchUsersRequest request, StreamObserver<UserResponse> responseObserver) {
+        if (request.getIdsCount() > properties.getMaxBatchSize()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("At most " + properties.getMaxBatchSize() + " ids per call")
+                    .asRuntimeException());
+            return;
+        }
+        Set<String> ids = new HashSet<>(request.getIdsList());
+        try {
+            watchRegistry.register(ids, (ServerCallStreamObserver<UserResponse>) responseObserver,
+                    () -> ids.isEmpty()
+                            ? List.of()
+                            : userService.getUsersDetails(request.getIdsList()).stream().map(UserGrpcService::toMessage).toList());
+        } catch (RuntimeException ex) {
+            log.error("gRPC WatchUsers failed", ex);
+            responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).asRuntimeException());
+        }
+    }
+
+    static UserResponse toMessage(UserResponseDto user) {
+        // Protobuf strings are never null; absent DTO fields map to the proto3 default.
+        UserResponse.Builder builder = UserResponse.newBuilder();
+        if (user.getId() != null) builder.setId(user.getId());
+        if (user.getName() != null) builder.setName(user.getName());
+        if (user.getEmail() != null) builder.setEmail(user.getEmail());
+        return builder.build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.ecom.userservice.grpc;
+
+import com.ecom.userservice.grpc.proto.UserResponse;
+import com.ecom.userservice.services.UserChangedEvent;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fans user changes out to open WatchUsers streams. Only changes made through this instance
+ * are seen: events are published in-process, so a watcher connected to one instance does not
+ * hear about writes handled by another.
+ * <p>
+ * A stream whose transport is not ready to take more messages is sent nothing until it is;
+ * meanwhile only the newest change per user is kept. A watcher that falls more than
+ * {@code grpc.server.max-watch-backlog} users behind is closed with RESOURCE_EXHAUSTED.
+ */
+@Component
+public class UserWatchRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(UserWatchRegistry.class);
+
+    private final CopyOnWriteArrayList<Watcher> watchers = new CopyOnWriteArrayList<>();
+    // Orders changes as they are published; each one is numbered after its write committed.
+    private final AtomicLong sequence = new AtomicLong();
+    private final int maxBacklog;
+
+    public UserWatchRegistry(GrpcServerProperties properties) {
+        this.maxBacklog = properties.getMaxWatchBacklog();
+    }
+
+    /**
+     * Registers the stream before reading the snapshot, so no change published meanwhile is
+     * lost; those changes are buffered until the snapshot has been sent. The snapshot is read
+     * without holding any lock, so publishers never wait on it.
+     */
+    public void register(Set<String> ids, ServerCallStreamObserver<UserResponse> observer,
+                         Supplier<List<UserResponse>> snapshot) {
+        Watcher watcher = new Watcher(ids, observer);
+        observer.setOnCancelHandler(() -> watchers.remove(watcher));
+        observer.setOnReadyHandler(watcher::drain);
+        watchers.add(watcher);
+        // Changes numbered up to here were committed before the snapshot is read.
+        long snapshotSequence = sequence.get();
+        List<UserResponse> current;
+        try {
+            current = snapshot.get();
+        } catch (RuntimeException ex) {
+            watchers.remove(watcher);
+            throw ex;
+        }
+        watcher.start(snapshotSequence, current);
+    }
+
+    public int size() {
+        return watchers.size();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        long changeSequence = sequence.incrementAndGet();
+        if (watchers.isEmpty()) return;
+        UserResponse message = UserGrpcService.toMessage(event.getUser());
+        for (Watcher watcher : watchers) {
+            if (watcher.ids.isEmpty() || watcher.ids.contains(message.getId())) {
+                watcher.send(changeSequence, message);
+            }
+        }
+    }
+
+    private record Change(long sequence, UserResponse message) {
+    }
+
+    private final class Watcher {
+        private final Set<String> ids;
+        private final ServerCallStreamObserver<UserResponse> observer;
+        // Changes published before the snapshot went out; null once the stream is live.
+        private List<Change> buffered = new ArrayList<>();
+        // Newest change per id that the transport was not ready for, in the order to send them.
+        private final Map<String, UserResponse> pending = new LinkedHashMap<>();
+        private boolean closed;
+
+        private Watcher(Set<String> ids, ServerCallStreamObserver<UserResponse> observer) {
+            this.ids = ids;
+            this.observer = observer;
+        }
+
+        // Sends the snapshot, then for each id only the newest buffered change, and only if it
+        // is newer than the snapshot and differs from what the snapshot already sent.
+        private synchronized void start(long snapshotSequence, List<UserResponse> snapshot) {
+            Map<String, UserResponse> sent = new HashMap<>();
+            for (UserResponse message : snapshot) {
+                if (!deliver(message)) return;
+                sent.put(message.getId(), message);
+            }
+            Map<String, UserResponse> newest = new LinkedHashMap<>();
+            for (Change change : buffered) {
+                if (change.sequence() <= snapshotSequence) continue;
+                newest.remove(change.message().getId());
+                newest.put(change.message().getId(), change.message());
+            }
+            buffered = null;
+            for (UserResponse message : newest.values()) {
+                if (!message.equals(sent.get(message.getId())) && !deliver(message)) return;
+            }
+        }
+
+        // StreamObserver is not thread-safe and changes can be published from any request thread.
+        private synchronized void send(long changeSequence, UserResponse message) {
+            if (buffered != null) {
+                buffered.add(new Change(changeSequence, message));
+                return;
+            }
+            deliver(message);
+        }
+
+        private boolean deliver(UserResponse message) {
+            if (closed) return false;
+            if (observer.isCancelled()) {
+                close();
+                return false;
+            }
+            pending.remove(message.getId());
+            pending.put(message.getId(), message);
+            if (pending.size() > maxBacklog) {
+                log.warn("Closing user watch stream more than " + maxBacklog + " users behind");
+                close();
+                try {
+                    observer.onError(Status.RESOURCE_EXHAUSTED
+                            .withDescription("Watcher fell more than " + maxBacklog + " users behind")
+                            .asRuntimeException());
+                } catch (RuntimeException ex) {
+                    log.warn("Dropping user watch stream: " + ex.getMessage());
+                }
+                return false;
+            }
+            return drain();
+        }
+
+        // Also the stream's onReady handler, so whatever was held back goes out once the
+        // transport drains.
+        private synchronized boolean drain() {
+            while (!closed && !pending.isEmpty() && observer.isReady()) {
+                Iterator<UserResponse> next = pending.values().iterator();
+                UserResponse message = next.next();
+                next.remove();
+                try {
+                    observer.onNext(message);
+                } catch (RuntimeException ex) {
+                    log.warn("Dropping user watch stream: " + ex.getMessage());
+                    close();
+                }
+            }
+            return !closed;
+        }
+
+        private void close() {
+            closed = true;
+            pending.clear();
+            watchers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecom.userservice.hotkeys;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "userservice.hot-keys")
+@Data
+public class HotKeyProperties {
+    private boolean enabled = true;
+    // Counters per sketch row (rounded up to a power of two) and number of rows.
+    private int sketchWidth = 8192;
+    private int sketchDepth = 4;
+    // How many of the most requested ids are tracked by name.
+    private int topK = 32;
+    // Every interval all counts are halved, so a count reflects roughly the last two intervals.
+    private Duration decayInterval = Duration.ofSeconds(10);
+    // An id is pinned once its decayed count reaches this, and unpinned when it drops below half.
+    private long pinThreshold = 500;
+}
@@ -0,0 +1,94 @@
+package com.ecom.userservice.hotkeys;
+
+import com.ecom.userservice.dtos.HotKeyDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the user ids that dominate GET /users/{id} traffic. Every request is counted in a
+ * {@link CountMinSketch}; only ids whose estimate beats the current top-K are tracked by
+ * name, and their counts are always read back from the sketch. That keeps the request path
+ * down to atomic increments and a set lookup, even for the hottest id. Counts decay on a
+ * schedule, and the ids above the pin threshold form the hot set.
+ */
+@Component
+public class HotKeyTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private final HotKeyProperties properties;
+    private final CountMinSketch sketch;
+    private final Set<String> topK = ConcurrentHashMap.newKeySet();
+    // Smallest count in a full top-K; lower estimates are turned away without scanning it.
+    private volatile long admissionFloor;
+    private volatile Set<String> hot = Set.of();
+
+    public HotKeyTracker(HotKeyProperties properties) {
+        this.properties = properties;
+        this.sketch = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+    }
+
+    public void record(String id) {
+        if (!properties.isEnabled()) return;
+        long estimate = sketch.add(id);
+        if (topK.contains(id)) return;
+        if (topK.size() >= properties.getTopK() && estimate <= admissionFloor) return;
+        topK.add(id);
+        if (topK.size() > properties.getTopK()) {
+            evictSmallest();
+        }
+    }
+
+    public boolean isHot(String id) {
+        return hot.contains(id);
+    }
+
+    /** Tracked ids, most requested first. */
+    public List<HotKeyDto> hotKeys() {
+        Set<String> pinned = hot;
+        return topK.stream()
+                .map(id -> new HotKeyDto(id, sketch.estimate(id), pinned.contains(id)))
+                .sorted(Comparator.comparingLong(HotKeyDto::getEstimatedCount).reversed())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${userservice.hot-keys.decay-interval:10s}")
+    public void decay() {
+        Set<String> previous = hot;
+        Set<String> next = new HashSet<>();
+        for (String id : topK) {
+            long count = sketch.estimate(id);
+            // Half the threshold to stay pinned, so an id hovering near it does not flap.
+            if (count >= properties.getPinThreshold()
+                    || (previous.contains(id) && count >= properties.getPinThreshold() / 2)) {
+                next.add(id);
+            }
+        }
+        hot = Set.copyOf(next);
+        if (!next.equals(previous)) {
+            log.info("Hot user ids changed: " + next.size() + " pinned " + next);
+        }
+
+        sketch.decay();
+        topK.removeIf(id -> sketch.estimate(id) == 0);
+        admissionFloor = admissionFloor >>> 1;
+    }
+
+    // Runs only when a new id enters a full top-K, which is rare once traffic settles.
+    private void evictSmallest() {
+        while (topK.size() > properties.getTopK()) {
+            String smallest = topK.stream().min(Comparator.comparingLong(sketch::estimate)).orElse(null);
+            if (smallest == null) return;
+            topK.remove(smallest);
+        }
+        topK.stream().mapToLong(sketch::estimate).min().ifPresent(floor -> admissionFloor = floor);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecom.userservice.hotkeys;
+
+import com.ecom.userservice.cache.CachedUserResponse;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.ecom.userservice.repositories.UserRepository;
+import com.ecom.userservice.services.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process copy of the GET /users/{id} response for every hot id, so the hottest users are
+ * served without touching Redis at all. Each instance holds its own replica. Entries are
+ * never evicted while their id stays hot; they are dropped when the id cools down, when a
+ * local write changes the user, or when the periodic version check finds them outdated.
+ */
+@Component
+public class PinnedUserResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedUserResponseCache.class);
+
+    private final HotKeyTracker hotKeyTracker;
+    private final UserRepository userRepository;
+    private final ConcurrentHashMap<String, CachedUserResponse> responses = new ConcurrentHashMap<>();
+
+    public PinnedUserResponseCache(HotKeyTracker hotKeyTracker, UserRepository userRepository) {
+        this.hotKeyTracker = hotKeyTracker;
+        this.userRepository = userRepository;
+    }
+
+    public CachedUserResponse get(String id) {
+        return hotKeyTracker.isHot(id) ? responses.get(id) : null;
+    }
+
+    /** Keeps {@code response} if {@code id} is currently hot; a no-op otherwise. */
+    public void offer(String id, CachedUserResponse response) {
+        if (hotKeyTracker.isHot(id)) {
+            responses.put(id, response);
+        }
+    }
+
+    public int size() {
+        return responses.size();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        responses.remove(event.getUser().getId());
+    }
+
+    // Writes made through other instances only show up here as a newer last-modified time in
+    // the database, so this interval bounds how long a pinned response can lag behind one.
+    @Scheduled(fixedDelayString = "${userservice.hot-keys.decay-interval:10s}")
+    public void revalidate() {
+        for (Map.Entry<String, CachedUserResponse> entry : responses.entrySet()) {
+            String id = entry.getKey();
+            CachedUserResponse pinned = entry.getValue();
+            if (!hotKeyTracker.isHot(id)) {
+                responses.remove(id, pinned);
+                continue;
+            }
+            try {
+                Optional<LocalDateTime> lastModified = userRepository.findLastModifiedById(id);
+                if (lastModified.isEmpty()
+                        || !UserVersionDto.of(id, lastModified.get()).getEtag().equals(pinned.getVersion().getEtag())) {
+                    responses.remove(id, pinned);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Could not revalidate pinned user " + id + ", keeping it: " + ex.getMessage());
+            }
+        }
+    }
+}
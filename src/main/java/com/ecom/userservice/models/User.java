@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,7 +16,13 @@ import java.util.UUID;
 
 @Entity
 @Data
-@Table(name="USERS")
+@Table(name="USERS", indexes = {
+        // Keyset listing seeks on the primary key; prefix search seeks on (column, id).
+        @Index(name = "idx_users_username_id", columnList = "username, id"),
+        @Index(name = "idx_users_email_id", columnList = "email, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @AllArgsConstructor
 @NoArgsConstructor
 public class User extends BaseClass{
@@ -27,5 +35,6 @@ public class User extends BaseClass{
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users.addresses")
     private List<Address> addresses;
 }
\ No newline at end of file
@@ -1,14 +1,78 @@
 package com.ecom.userservice.repositories;
 
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
 import com.ecom.userservice.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, String> {
+    // Lookups by username/email go through the "user-queries" query cache region; Hibernate
+    // drops those results whenever the USERS table is written, so they never outlive an update.
+    // With sharding enabled the query cache is switched off and these hints have no effect
+    // (see ShardingConfiguration#shardUnawareQueryCacheDisabler).
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
     Optional<User> findByUsername(String username);
     Optional<User> findById(String id);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
     boolean existsByUsername(String username);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
     boolean existsByEmail(String email);
+
+    // createdAt is non-null, so it stands in for rows that were never updated.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
+    @Query("select coalesce(u.updatedAt, u.createdAt) from User u where u.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") String id);
+
+    // The response body and its validators in one row, for GET /users/{id} cache misses.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
+    @Query("select new com.ecom.userservice.dtos.VersionedUserDto(u.id, u.username, u.email, " +
+            "coalesce(u.updatedAt, u.createdAt)) from User u where u.id = :id")
+    Optional<VersionedUserDto> findVersionedById(@Param("id") String id);
+
+    @Query("select new com.ecom.userservice.dtos.UserResponseDto(u.id, u.username, u.email) from User u " +
+            "where u.id in :ids")
+    List<UserResponseDto> findResponsesByIdIn(@Param("ids") Collection<String> ids);
+
+    // Keyset (seek) queries: each page starts strictly after the last row of the previous one,
+    // so the cost stays constant no matter how deep the caller pages. They project straight
+    // into the DTO, which keeps the eager addresses collection out of the picture.
+
+    @Query("select new com.ecom.userservice.dtos.UserResponseDto(u.id, u.username, u.email) from User u " +
+            "where u.id > :afterId order by u.id asc")
+    List<UserResponseDto> findPageAfter(@Param("afterId") String afterId, Limit limit);
+
+    @Query("select new com.ecom.userservice.dtos.UserResponseDto(u.id, u.username, u.email) from User u " +
+            "where u.username like :prefix escape '\\' " +
+            "and (u.username > :afterUsername or (u.username = :afterUsername and u.id > :afterId)) " +
+            "order by u.username asc, u.id asc")
+    List<UserResponseDto> findByUsernamePrefixAfter(@Param("prefix") String prefix,
+                                                    @Param("afterUsername") String afterUsername,
+                                                    @Param("afterId") String afterId,
+                                                    Limit limit);
+
+    @Query("select new com.ecom.userservice.dtos.UserResponseDto(u.id, u.username, u.email) from User u " +
+            "where u.email like :prefix escape '\\' " +
+            "and (u.email > :afterEmail or (u.email = :afterEmail and u.id > :afterId)) " +
+            "order by u.email asc, u.id asc")
+    List<UserResponseDto> findByEmailPrefixAfter(@Param("prefix") String prefix,
+                                                 @Param("afterEmail") String afterEmail,
+                                                 @Param("afterId") String afterId,
+                                                 Limit limit);
 }
\ No newline at end of file
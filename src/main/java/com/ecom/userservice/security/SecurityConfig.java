@@ -1,5 +1,6 @@
 package com.ecom.userservice.security;
 
+import com.ecom.userservice.models.Role;
 import com.ecom.userservice.security.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,6 +27,10 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/actuator/**").permitAll()
+                        // Roles from the token are used as authorities as-is, with or without the ROLE_ prefix.
+                        .requestMatchers("/admin/**").hasAnyAuthority(Role.ADMIN.name(), "ROLE_" + Role.ADMIN.name())
+                        // Listing and prefix search expose every user's username and email; admin tooling only.
+                        .requestMatchers(HttpMethod.GET, "/users").hasAnyAuthority(Role.ADMIN.name(), "ROLE_" + Role.ADMIN.name())
                         .requestMatchers("/users/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,15 @@
+package com.ecom.userservice.services;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link UserServiceImpl} after a user has been written, so in-process
+ * listeners (e.g. gRPC watch streams) can push the new state.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+    private final UserResponseDto user;
+}
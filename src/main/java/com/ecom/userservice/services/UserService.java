@@ -1,14 +1,21 @@
 package com.ecom.userservice.services;
 
+import com.ecom.userservice.dtos.UserPageResponseDto;
 import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
 import com.ecom.userservice.exceptions.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public interface UserService {
     //public UserResponseDto getUserDetails(String username) throws UsernameNotFoundException;
     public UserResponseDto getUserDetails(String id) throws UsernameNotFoundException;
+    public List<UserResponseDto> getUsersDetails(List<String> ids);
+    public VersionedUserDto getVersionedUserDetails(String id) throws UsernameNotFoundException;
     public UserResponseDto saveUser(UserResponseDto user);
+    public UserPageResponseDto listUsers(String cursor, int limit);
+    public UserPageResponseDto searchUsers(String usernamePrefix, String emailPrefix, String cursor, int limit);
 }
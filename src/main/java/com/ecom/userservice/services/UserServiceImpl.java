@@ -1,46 +1,104 @@
 package com.ecom.userservice.services;
 
+import com.ecom.userservice.dtos.UserPageResponseDto;
 import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
+import com.ecom.userservice.exceptions.InvalidPageRequestException;
 import com.ecom.userservice.exceptions.UserNameAlreadyExistsException;
 import com.ecom.userservice.exceptions.UsernameNotFoundException;
 import com.ecom.userservice.models.User;
 import com.ecom.userservice.repositories.UserRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CircuitBreaker redisCircuitBreaker;
 
     private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final char CURSOR_SEPARATOR = '\u0000';
 
-    public UserServiceImpl(UserRepository userRepository, RedisTemplate redisTemplate) {
+    public UserServiceImpl(UserRepository userRepository, RedisTemplate redisTemplate,
+                           ApplicationEventPublisher eventPublisher, CircuitBreaker redisCircuitBreaker) {
         this.userRepository = userRepository;
         this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.redisCircuitBreaker = redisCircuitBreaker;
     }
 
     @Override
     public UserResponseDto getUserDetails(String id) throws UsernameNotFoundException {
         log.info("Fetching user details with user id "+id);
-        UserResponseDto userResp = (UserResponseDto) redisTemplate.opsForHash().get("USERS", "USER" + id);
+        UserResponseDto userResp = (UserResponseDto) cacheGet("USERS", "USER" + id);
         if(userResp!=null) return userResp;
         User user= userRepository.findById(id).orElseThrow(() -> new UsernameNotFoundException("User not found"));
         UserResponseDto userResponseDto = new UserResponseDto();
         userResponseDto.setId(id);
         userResponseDto.setEmail(user.getEmail());
         userResponseDto.setName(user.getUsername());
-        redisTemplate.opsForHash().put("USERS", "USER" + id, userResponseDto);
+        cachePut("USERS", "USER" + id, userResponseDto);
         log.info("Fetched user details with user id "+id);
         return userResponseDto;
     }
 
+    @Override
+    public List<UserResponseDto> getUsersDetails(List<String> ids) {
+        List<String> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.isEmpty()) return List.of();
+        List<Object> fields = distinctIds.stream().map(id -> (Object) ("USER" + id)).toList();
+        List<Object> cached = cacheMultiGet("USERS", fields);
+        Map<String, UserResponseDto> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Object value = cached == null ? null : cached.get(i);
+            if (value != null) found.put(distinctIds.get(i), (UserResponseDto) value);
+            else misses.add(distinctIds.get(i));
+        }
+        if (!misses.isEmpty()) {
+            // One projection query and one HMSET for all misses instead of a round trip per id.
+            Map<Object, Object> toCache = new HashMap<>();
+            for (UserResponseDto userResponseDto : userRepository.findResponsesByIdIn(misses)) {
+                found.put(userResponseDto.getId(), userResponseDto);
+                toCache.put("USER" + userResponseDto.getId(), userResponseDto);
+            }
+            if (!toCache.isEmpty()) cachePutAll("USERS", toCache);
+        }
+        log.info("Fetched "+found.size()+" of "+distinctIds.size()+" users, "+misses.size()+" looked up in the database");
+        return distinctIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    // Body and version are read together from the database, bypassing the USERS hash and the
+    // users entity region: either can still hold a user that was changed around this service,
+    // and pairing it with a newer version would let clients keep the old body under a valid ETag.
+    @Override
+    public VersionedUserDto getVersionedUserDetails(String id) throws UsernameNotFoundException {
+        return userRepository.findVersionedById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
     @Override
     public UserResponseDto saveUser(UserResponseDto request) throws UserNameAlreadyExistsException {
         User user= userRepository.findById(request.getId()).orElse(null);
@@ -54,6 +112,115 @@ public class UserServiceImpl implements UserService {
         newuser.setEmail(request.getEmail());
         User saved = userRepository.save(newuser);
         log.info("Saved user with id "+saved.getId());
-        return new UserResponseDto(saved.getId(), saved.getUsername(), saved.getEmail());
+        UserResponseDto savedDto = new UserResponseDto(saved.getId(), saved.getUsername(), saved.getEmail());
+        eventPublisher.publishEvent(new UserChangedEvent(savedDto));
+        return savedDto;
+    }
+
+    @Override
+    public UserPageResponseDto listUsers(String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        String afterId = cursor == null ? "" : decodeCursor(cursor)[1];
+        List<UserResponseDto> rows = userRepository.findPageAfter(afterId, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, dto -> "");
+    }
+
+    @Override
+    public UserPageResponseDto searchUsers(String usernamePrefix, String emailPrefix, String cursor, int limit) {
+        if ((usernamePrefix == null) == (emailPrefix == null)) {
+            throw new InvalidPageRequestException("Exactly one of username or email prefix must be given");
+        }
+        boolean byUsername = usernamePrefix != null;
+        String prefix = byUsername ? usernamePrefix : emailPrefix;
+        if (prefix.isBlank()) {
+            throw new InvalidPageRequestException("Search prefix must not be blank");
+        }
+        int pageSize = pageSize(limit);
+        String[] after = cursor == null ? new String[]{"", ""} : decodeCursor(cursor);
+        String pattern = escapeLike(prefix) + "%";
+        List<UserResponseDto> rows = byUsername
+                ? userRepository.findByUsernamePrefixAfter(pattern, after[0], after[1], Limit.of(pageSize + 1))
+                : userRepository.findByEmailPrefixAfter(pattern, after[0], after[1], Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, byUsername ? UserResponseDto::getName : UserResponseDto::getEmail);
+    }
+
+    // Redis is only a cache: every access goes through the circuit breaker and a failure,
+    // slow call or open breaker degrades to a miss (reads) or a no-op (writes) so requests
+    // are served from MySQL instead of failing.
+
+    private Object cacheGet(String hash, String field) {
+        return cacheRead(hash, () -> redisTemplate.opsForHash().get(hash, field));
+    }
+
+    private List<Object> cacheMultiGet(String hash, List<Object> fields) {
+        return cacheRead(hash, () -> redisTemplate.opsForHash().multiGet(hash, fields));
+    }
+
+    private void cachePut(String hash, String field, Object value) {
+        cacheWrite(hash, () -> redisTemplate.opsForHash().put(hash, field, value));
+    }
+
+    private void cachePutAll(String hash, Map<Object, Object> values) {
+        cacheWrite(hash, () -> redisTemplate.opsForHash().putAll(hash, values));
+    }
+
+    private <T> T cacheRead(String hash, Supplier<T> read) {
+        try {
+            return redisCircuitBreaker.executeSupplier(read);
+        } catch (CallNotPermittedException ex) {
+            return null;
+        } catch (RuntimeException ex) {
+            log.warn("Redis read from "+hash+" failed, falling back to the database: "+ex.getMessage());
+            return null;
+        }
+    }
+
+    private void cacheWrite(String hash, Runnable write) {
+        try {
+            redisCircuitBreaker.executeRunnable(write);
+        } catch (CallNotPermittedException ex) {
+            // Breaker open: skip the write rather than queue behind an unhealthy Redis.
+        } catch (RuntimeException ex) {
+            log.warn("Redis write to "+hash+" failed: "+ex.getMessage());
+        }
+    }
+
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new InvalidPageRequestException("Page limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // One extra row is fetched to learn whether another page exists without a count query.
+    private static UserPageResponseDto toPage(List<UserResponseDto> rows, int pageSize, Function<UserResponseDto, String> cursorKey) {
+        if (rows.size() <= pageSize) {
+            return new UserPageResponseDto(rows, null);
+        }
+        List<UserResponseDto> page = rows.subList(0, pageSize);
+        UserResponseDto last = page.get(pageSize - 1);
+        return new UserPageResponseDto(List.copyOf(page), encodeCursor(cursorKey.apply(last), last.getId()));
+    }
+
+    private static String encodeCursor(String key, String id) {
+        String raw = key + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            if (separator >= 0) {
+                return new String[]{raw.substring(0, separator), raw.substring(separator + 1)};
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageRequestException("Malformed page cursor", ex);
+        }
+        throw new InvalidPageRequestException("Malformed page cursor");
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
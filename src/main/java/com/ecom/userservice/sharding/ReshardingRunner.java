@@ -0,0 +1,66 @@
+package com.ecom.userservice.sharding;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@link UserReshardingTool} from configuration, as a separate process next to the live
+ * service, e.g.
+ * <pre>
+ * java -jar user-service.jar --spring.main.web-application-type=none --grpc.server.enabled=false \
+ *      --eureka.client.enabled=false --userservice.sharding.reshard.mode=copy \
+ *      --userservice.sharding.reshard.targets[0].url=... --userservice.sharding.reshard.targets[1].url=...
+ * </pre>
+ * Sources are {@code userservice.sharding.reshard.sources}, or {@code userservice.sharding.shards}
+ * when that is empty; the catch-up copy after the switch must name the old layout there.
+ * Modes: {@code copy}, {@code backfill-lookup} (targets = the current layout) and {@code cleanup}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "userservice.sharding.reshard", name = "mode")
+public class ReshardingRunner implements ApplicationRunner {
+
+    private final ShardingProperties properties;
+
+    public ReshardingRunner(ShardingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // One DataSource per distinct URL, so shards present in both layouts are recognised.
+        Map<String, DataSource> byUrl = new HashMap<>();
+        List<ShardingProperties.Shard> sourceShards = properties.getReshard().getSources().isEmpty()
+                ? properties.getShards() : properties.getReshard().getSources();
+        List<DataSource> sources = resolve(sourceShards, byUrl);
+        List<DataSource> targets = resolve(properties.getReshard().getTargets(), byUrl);
+        UserReshardingTool tool = new UserReshardingTool(sources, targets, properties.getReshard().getBatchSize());
+        switch (properties.getReshard().getMode()) {
+            case "copy" -> {
+                tool.prepareTargets();
+                tool.copy();
+            }
+            case "backfill-lookup" -> {
+                tool.prepareTargets();
+                tool.backfillLookupIndex();
+            }
+            case "cleanup" -> tool.removeMisplaced();
+            default -> throw new IllegalArgumentException("Unknown resharding mode " + properties.getReshard().getMode());
+        }
+    }
+
+    private static List<DataSource> resolve(List<ShardingProperties.Shard> shards, Map<String, DataSource> byUrl) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (ShardingProperties.Shard shard : shards) {
+            dataSources.add(byUrl.computeIfAbsent(shard.getUrl(), url -> ShardingConfiguration.dataSource(shard)));
+        }
+        return dataSources;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecom.userservice.sharding;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Maps user ids to shards. The hash is FNV-1a over the UTF-8 bytes of the id: it is stable
+ * across JVMs and releases, unlike relying on any particular runtime's hashing.
+ */
+public class ShardRouter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<DataSource> shards;
+
+    public ShardRouter(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard must be configured");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public int shardFor(String id) {
+        return shardFor(id, shards.size());
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource dataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    public List<DataSource> dataSources() {
+        return shards;
+    }
+
+    public static int shardFor(String id, int shardCount) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+}
@@ -0,0 +1,240 @@
+package com.ecom.userservice.sharding;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.models.User;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wraps {@code UserRepository} so every call runs against the right shard:
+ * <ul>
+ *     <li>id-keyed reads and writes go to {@code hash(id) mod N};</li>
+ *     <li>username / email lookups resolve the id through {@link UserLookupIndex} first and
+ *     only scatter to all shards while the index is not yet authoritative;</li>
+ *     <li>batched id lookups are split per shard, keyset pages are gathered from every shard
+ *     and merged in the order of the key columns' collation (utf8mb4_0900_ai_ci, see
+ *     {@code shard-schema.sql});</li>
+ *     <li>anything else is scattered and the per-shard results combined.</li>
+ * </ul>
+ * Bulk deletes do not maintain the lookup index; rebuild it with the backfill-lookup run.
+ * Calls must not be wrapped in a transaction spanning several shards.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor, DisposableBean {
+
+    // Like utf8mb4_0900_ai_ci: Unicode collation order with case and accents ignored. Keys that
+    // compare equal fall back to the id, as the keyset queries do.
+    private static final Collator KEY_ORDER = keyOrder();
+    private static final Comparator<UserResponseDto> BY_ID =
+            Comparator.comparing(UserResponseDto::getId, KEY_ORDER);
+    private static final Comparator<UserResponseDto> BY_USERNAME =
+            Comparator.comparing(UserResponseDto::getName, KEY_ORDER).thenComparing(BY_ID);
+    private static final Comparator<UserResponseDto> BY_EMAIL =
+            Comparator.comparing(UserResponseDto::getEmail, KEY_ORDER).thenComparing(BY_ID);
+
+    private final ShardRouter router;
+    private final UserLookupIndex lookupIndex;
+    private final boolean lookupAuthoritative;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRoutingInterceptor(ShardRouter router, UserLookupIndex lookupIndex, boolean lookupAuthoritative) {
+        this.router = router;
+        this.lookupIndex = lookupIndex;
+        this.lookupAuthoritative = lookupAuthoritative;
+        this.scatterExecutor = Executors.newFixedThreadPool(router.shardCount() * 4, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Collator keyOrder() {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        return collator;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class || ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArguments();
+        switch (invocation.getMethod().getName()) {
+            case "findById", "existsById", "getReferenceById", "getById", "findLastModifiedById", "findVersionedById":
+                return onShard(router.shardFor((String) args[0]), invocation, args);
+            case "deleteById": {
+                Object result = onShard(router.shardFor((String) args[0]), invocation, args);
+                lookupIndex.remove((String) args[0]);
+                return result;
+            }
+            case "save", "saveAndFlush":
+                return save(invocation, (User) args[0]);
+            case "saveAll", "saveAllAndFlush": {
+                List<Object> saved = new ArrayList<>();
+                for (Object user : (Iterable<?>) args[0]) {
+                    saved.addAll((Collection<?>) save(invocation, (User) user, List.of(user)));
+                }
+                return saved;
+            }
+            case "delete": {
+                User user = (User) args[0];
+                Object result = onShard(router.shardFor(user.getId()), invocation, args);
+                lookupIndex.remove(user.getId());
+                return result;
+            }
+            case "findByUsername":
+                return findByUsername(invocation, (String) args[0]);
+            case "existsByUsername":
+                return lookupIndex.existsByUsername((String) args[0]) || (!lookupAuthoritative && anyTrue(scatter(invocation)));
+            case "existsByEmail":
+                return lookupIndex.existsByEmail((String) args[0]) || (!lookupAuthoritative && anyTrue(scatter(invocation)));
+            case "findAllById", "findResponsesByIdIn":
+                return byIds(invocation, (Iterable<?>) args[0]);
+            case "findPageAfter":
+                return mergePages(invocation, BY_ID);
+            case "findByUsernamePrefixAfter":
+                return mergePages(invocation, BY_USERNAME);
+            case "findByEmailPrefixAfter":
+                return mergePages(invocation, BY_EMAIL);
+            default:
+                return combine(scatter(invocation));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scatterExecutor.shutdownNow();
+    }
+
+    private Object save(MethodInvocation invocation, User user) throws Throwable {
+        return save(invocation, user, user);
+    }
+
+    private Object save(MethodInvocation invocation, User user, Object argument) throws Throwable {
+        // Index first: a concurrent existsBy* check then sees the name as taken rather than free.
+        lookupIndex.index(user.getId(), user.getUsername(), user.getEmail());
+        return onShard(router.shardFor(user.getId()), invocation, new Object[]{argument});
+    }
+
+    private Object findByUsername(MethodInvocation invocation, String username) throws Throwable {
+        Optional<String> userId = lookupIndex.findUserIdByUsername(username);
+        if (userId.isPresent()) {
+            Optional<?> found = (Optional<?>) onShard(router.shardFor(userId.get()), invocation, invocation.getArguments());
+            if (found.isPresent() || lookupAuthoritative) return found;
+        } else if (lookupAuthoritative) {
+            return Optional.empty();
+        }
+        return scatter(invocation).stream()
+                .map(result -> (Optional<?>) result)
+                .filter(Optional::isPresent)
+                .findFirst()
+                .orElse(Optional.empty());
+    }
+
+    private Object byIds(MethodInvocation invocation, Iterable<?> ids) throws Throwable {
+        Map<Integer, List<String>> idsByShard = new HashMap<>();
+        for (Object id : ids) {
+            idsByShard.computeIfAbsent(router.shardFor((String) id), shard -> new ArrayList<>()).add((String) id);
+        }
+        List<CompletableFuture<Object>> calls = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> entry : idsByShard.entrySet()) {
+            calls.add(submit(entry.getKey(), invocation, new Object[]{entry.getValue()}));
+        }
+        List<Object> found = new ArrayList<>();
+        for (Object result : join(calls)) {
+            found.addAll((Collection<?>) result);
+        }
+        return found;
+    }
+
+    // Each shard returns its own first page; the global page is the smallest keys across them.
+    @SuppressWarnings("unchecked")
+    private Object mergePages(MethodInvocation invocation, Comparator<UserResponseDto> order) throws Throwable {
+        Object[] args = invocation.getArguments();
+        Limit limit = (Limit) args[args.length - 1];
+        List<UserResponseDto> merged = new ArrayList<>();
+        for (Object result : scatter(invocation)) {
+            merged.addAll((List<UserResponseDto>) result);
+        }
+        merged.sort(order);
+        return limit.isLimited() && merged.size() > limit.max() ? new ArrayList<>(merged.subList(0, limit.max())) : merged;
+    }
+
+    private List<Object> scatter(MethodInvocation invocation) throws Throwable {
+        List<CompletableFuture<Object>> calls = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            calls.add(submit(shard, invocation, invocation.getArguments()));
+        }
+        return join(calls);
+    }
+
+    private CompletableFuture<Object> submit(int shard, MethodInvocation invocation, Object[] args) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return onShard(shard, invocation, args);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new CompletionException(ex);
+            }
+        }, scatterExecutor);
+    }
+
+    private static List<Object> join(List<CompletableFuture<Object>> calls) throws Throwable {
+        List<Object> results = new ArrayList<>(calls.size());
+        try {
+            for (CompletableFuture<Object> call : calls) {
+                results.add(call.join());
+            }
+        } catch (CompletionException ex) {
+            throw ex.getCause();
+        }
+        return results;
+    }
+
+    // A clone per call keeps concurrent shard invocations from sharing interceptor state.
+    private static Object onShard(int shard, MethodInvocation invocation, Object[] args) throws Throwable {
+        MethodInvocation call = ((ProxyMethodInvocation) invocation).invocableClone(args);
+        return ShardContext.callOn(shard, call::proceed);
+    }
+
+    private static boolean anyTrue(List<Object> results) {
+        return results.stream().anyMatch(Boolean.TRUE::equals);
+    }
+
+    private static Object combine(List<Object> results) {
+        Object first = results.get(0);
+        if (first instanceof Collection<?>) {
+            List<Object> all = new ArrayList<>();
+            results.forEach(result -> all.addAll((Collection<?>) result));
+            return all;
+        }
+        if (first instanceof Long) {
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        }
+        if (first instanceof Boolean) {
+            return anyTrue(results);
+        }
+        if (first instanceof Optional<?>) {
+            return results.stream().map(result -> (Optional<?>) result).filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        }
+        return results.stream().filter(result -> result != null).findFirst().orElse(null);
+    }
+}
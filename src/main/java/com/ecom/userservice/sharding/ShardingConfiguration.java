@@ -0,0 +1,88 @@
+package com.ecom.userservice.sharding;
+
+import com.ecom.userservice.repositories.UserRepository;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with {@link ShardRoutingDataSource} over
+ * {@code userservice.sharding.shards} and routes {@link UserRepository} through
+ * {@link ShardRoutingInterceptor}. Inactive unless {@code userservice.sharding.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "userservice.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        List<DataSource> shards = properties.getShards().stream().map(ShardingConfiguration::dataSource).toList();
+        ShardRouter router = new ShardRouter(shards);
+        if (properties.isInitializeSchema()) {
+            for (int i = 0; i < shards.size(); i++) {
+                ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("sharding/shard-schema.sql"));
+                if (i == 0) populator.addScript(new ClassPathResource("sharding/lookup-schema.sql"));
+                DatabasePopulatorUtils.execute(populator, shards.get(i));
+            }
+        }
+        return router;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRouter shardRouter) {
+        return new ShardRoutingDataSource(shardRouter.dataSources());
+    }
+
+    @Bean
+    public UserLookupIndex userLookupIndex(ShardRouter shardRouter) {
+        return new UserLookupIndex(shardRouter.dataSource(0));
+    }
+
+    @Bean
+    public ShardRoutingInterceptor shardRoutingInterceptor(ShardRouter shardRouter, UserLookupIndex userLookupIndex,
+                                                           ShardingProperties properties) {
+        return new ShardRoutingInterceptor(shardRouter, userLookupIndex, properties.isLookupAuthoritative());
+    }
+
+    // Query cache keys carry the SQL and parameters but not the shard, so the same query run on
+    // two shards would share one entry. Entity regions are keyed by id and stay enabled.
+    @Bean
+    public HibernatePropertiesCustomizer shardUnawareQueryCacheDisabler() {
+        return properties -> properties.put("hibernate.cache.use_query_cache", "false");
+    }
+
+    @Bean
+    public static BeanPostProcessor shardedUserRepositoryPostProcessor(ObjectProvider<ShardRoutingInterceptor> interceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof UserRepository)) return bean;
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.addInterface(UserRepository.class);
+                proxyFactory.addAdvice(interceptor.getObject());
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+
+    static DataSource dataSource(ShardingProperties.Shard shard) {
+        return DataSourceBuilder.create()
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .build();
+    }
+}
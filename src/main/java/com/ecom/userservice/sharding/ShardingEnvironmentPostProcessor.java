@@ -0,0 +1,24 @@
+package com.ecom.userservice.sharding;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Turns off open-in-view when sharding is enabled. The request-scoped EntityManager would bind
+ * the first connection it gets, from whichever shard the first call routed to, and every later
+ * repository call in the same request would then run on that shard.
+ */
+public class ShardingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("userservice.sharding.enabled", Boolean.class, false)) {
+            environment.getPropertySources().addFirst(
+                    new MapPropertySource("sharding", Map.of("spring.jpa.open-in-view", "false")));
+        }
+    }
+}
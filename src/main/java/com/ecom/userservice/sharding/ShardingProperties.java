@@ -0,0 +1,43 @@
+package com.ecom.userservice.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "userservice.sharding")
+@Data
+public class ShardingProperties {
+    private boolean enabled = false;
+    // Ordered list of USERS shards; a user's shard is hash(id) mod shards.size(). Shard 0 also
+    // holds the global user_lookup table. Changing this list requires a resharding run.
+    private List<Shard> shards = new ArrayList<>();
+    // Set once the lookup index has been backfilled: a miss in it is then trusted as "does not
+    // exist" instead of being confirmed by querying every shard. Off by default, since an empty
+    // or partial index would otherwise fail logins and let duplicate usernames through.
+    private boolean lookupAuthoritative = false;
+    // Creates the USERS / address tables (and user_lookup on shard 0) on startup if missing.
+    private boolean initializeSchema = false;
+    private Reshard reshard = new Reshard();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    @Data
+    public static class Reshard {
+        // copy, backfill-lookup or cleanup; empty means the resharding runner is disabled.
+        private String mode;
+        // Layout to copy from; defaults to shards. Set to the old layout for the final copy
+        // once shards already lists the new one.
+        private List<Shard> sources = new ArrayList<>();
+        private List<Shard> targets = new ArrayList<>();
+        private int batchSize = 1000;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecom.userservice.sharding;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Global username / email index on shard 0, so lookups by those columns touch one shard
+ * instead of all of them.
+ */
+public class UserLookupIndex {
+
+    static final String USERNAME = "username";
+    static final String EMAIL = "email";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserLookupIndex(DataSource lookupDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(lookupDataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(lookupDataSource));
+    }
+
+    public Optional<String> findUserIdByUsername(String username) {
+        return findUserId(USERNAME, username);
+    }
+
+    public boolean existsByUsername(String username) {
+        return findUserId(USERNAME, username).isPresent();
+    }
+
+    public boolean existsByEmail(String email) {
+        return findUserId(EMAIL, email).isPresent();
+    }
+
+    /**
+     * Records the user's current username and email. Written before the user row itself, so
+     * a concurrent existence check errs on the side of "taken".
+     */
+    public void index(String userId, String username, String email) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from user_lookup where user_id = ?", userId);
+            insert(USERNAME, username, userId);
+            insert(EMAIL, email, userId);
+        });
+    }
+
+    public void remove(String userId) {
+        jdbcTemplate.update("delete from user_lookup where user_id = ?", userId);
+    }
+
+    private Optional<String> findUserId(String type, String value) {
+        if (value == null) return Optional.empty();
+        List<String> ids = jdbcTemplate.queryForList(
+                "select user_id from user_lookup where lookup_type = ? and lookup_value = ? order by user_id",
+                String.class, type, value);
+        return ids.stream().findFirst();
+    }
+
+    private void insert(String type, String value, String userId) {
+        if (value == null) return;
+        try {
+            jdbcTemplate.update("insert into user_lookup (lookup_type, lookup_value, user_id) values (?, ?, ?)",
+                    type, value, userId);
+        } catch (DuplicateKeyException ex) {
+            // Already indexed, e.g. by a concurrent backfill pass.
+        }
+    }
+}
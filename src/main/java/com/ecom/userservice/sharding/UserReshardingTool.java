@@ -0,0 +1,216 @@
+package com.ecom.userservice.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves users between shard layouts while the service keeps running on the old one.
+ * <ol>
+ *     <li>{@link #copy()}: walks every source shard in id order and upserts each user, with
+ *     its addresses, into the shard it hashes to in the target layout. A row is only
+ *     overwritten when the source copy is newer, so passes are idempotent and can be
+ *     repeated to catch up with live writes. It also fills the target's lookup index from
+ *     whichever copy the target ends up holding.</li>
+ *     <li>Point the instances at the target layout (rolling restart), then run one more
+ *     {@link #copy()} from the old layout to pick up writes made during the rollout.</li>
+ *     <li>{@link #removeMisplaced()}: deletes rows that no longer hash to the shard they
+ *     sit on.</li>
+ * </ol>
+ * Source and target lists may share databases; those are recognised by DataSource
+ * identity and rows that stay in place are not rewritten.
+ * {@link #backfillLookupIndex()} builds the lookup index for an existing layout.
+ */
+public class UserReshardingTool {
+
+    private static final Logger log = LoggerFactory.getLogger(UserReshardingTool.class);
+
+    private static final String USER_COLUMNS = "id, username, email, created_at, updated_at";
+    private static final String ADDRESS_COLUMNS = "id, street, city, state, zip_code, country, type, user_id";
+
+    private final List<DataSource> sources;
+    private final List<DataSource> targets;
+    private final UserLookupIndex targetLookupIndex;
+    private final int batchSize;
+
+    public UserReshardingTool(List<DataSource> sources, List<DataSource> targets, int batchSize) {
+        this.sources = List.copyOf(sources);
+        this.targets = List.copyOf(targets);
+        this.targetLookupIndex = new UserLookupIndex(targets.get(0));
+        this.batchSize = batchSize;
+    }
+
+    /** Creates the shard tables on every target, and the lookup table on target shard 0. */
+    public void prepareTargets() {
+        for (int i = 0; i < targets.size(); i++) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("sharding/shard-schema.sql"));
+            if (i == 0) populator.addScript(new ClassPathResource("sharding/lookup-schema.sql"));
+            DatabasePopulatorUtils.execute(populator, targets.get(i));
+        }
+    }
+
+    /** @return number of users written to a target shard */
+    public long copy() {
+        long written = 0;
+        for (int s = 0; s < sources.size(); s++) {
+            DataSource source = sources.get(s);
+            long scanned = 0;
+            for (List<Map<String, Object>> page : pages(source)) {
+                Map<Object, List<Map<String, Object>>> addresses = addressesOf(source, page);
+                for (Map<String, Object> user : page) {
+                    String id = (String) user.get("id");
+                    DataSource target = targets.get(ShardRouter.shardFor(id, targets.size()));
+                    Map<String, Object> indexed = user;
+                    if (target != source) {
+                        if (upsert(target, user, addresses.getOrDefault(id, List.of()))) {
+                            written++;
+                        } else {
+                            // The target row is at least as new as this one; index what it holds.
+                            indexed = new JdbcTemplate(target).queryForMap("select username, email from users where id = ?", id);
+                        }
+                    }
+                    targetLookupIndex.index(id, (String) indexed.get("username"), (String) indexed.get("email"));
+                }
+                scanned += page.size();
+            }
+            log.info("Resharding copy: scanned "+scanned+" users on source shard "+s);
+        }
+        log.info("Resharding copy: wrote "+written+" users to "+targets.size()+" target shards");
+        return written;
+    }
+
+    /** @return number of users indexed */
+    public long backfillLookupIndex() {
+        long indexed = 0;
+        for (DataSource target : targets) {
+            for (List<Map<String, Object>> page : pages(target)) {
+                for (Map<String, Object> user : page) {
+                    targetLookupIndex.index((String) user.get("id"), (String) user.get("username"), (String) user.get("email"));
+                }
+                indexed += page.size();
+            }
+        }
+        log.info("Lookup index backfill: indexed "+indexed+" users");
+        return indexed;
+    }
+
+    /** @return number of users deleted from shards they no longer belong to */
+    public long removeMisplaced() {
+        long removed = 0;
+        for (int t = 0; t < targets.size(); t++) {
+            DataSource target = targets.get(t);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+            TransactionTemplate transactionTemplate = transactionTemplate(target);
+            for (List<Map<String, Object>> page : pages(target)) {
+                for (Map<String, Object> user : page) {
+                    String id = (String) user.get("id");
+                    if (ShardRouter.shardFor(id, targets.size()) == t) continue;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update("delete from address where user_id = ?", id);
+                        jdbcTemplate.update("delete from users where id = ?", id);
+                    });
+                    removed++;
+                }
+            }
+        }
+        log.info("Resharding cleanup: removed "+removed+" misplaced users");
+        return removed;
+    }
+
+    // Keyset scan over users in id order, one batch at a time, so it never holds a long cursor
+    // open against a live shard.
+    private Iterable<List<Map<String, Object>>> pages(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return () -> new Iterator<>() {
+            private String afterId = "";
+            private List<Map<String, Object>> next = fetch();
+
+            private List<Map<String, Object>> fetch() {
+                return jdbcTemplate.queryForList(
+                        "select " + USER_COLUMNS + " from users where id > ? order by id limit ?", afterId, batchSize);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !next.isEmpty();
+            }
+
+            @Override
+            public List<Map<String, Object>> next() {
+                List<Map<String, Object>> page = next;
+                afterId = (String) page.get(page.size() - 1).get("id");
+                next = page.size() < batchSize ? List.of() : fetch();
+                return page;
+            }
+        };
+    }
+
+    private Map<Object, List<Map<String, Object>>> addressesOf(DataSource source, List<Map<String, Object>> users) {
+        List<Object> ids = users.stream().map(user -> user.get("id")).toList();
+        return new NamedParameterJdbcTemplate(source)
+                .queryForList("select " + ADDRESS_COLUMNS + " from address where user_id in (:ids)",
+                        new MapSqlParameterSource("ids", ids))
+                .stream()
+                .collect(Collectors.groupingBy(address -> address.get("user_id")));
+    }
+
+    private boolean upsert(DataSource target, Map<String, Object> user, List<Map<String, Object>> addresses) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+        Boolean written = transactionTemplate(target).execute(status -> {
+            String id = (String) user.get("id");
+            List<Map<String, Object>> existing = jdbcTemplate.queryForList(
+                    "select created_at, updated_at from users where id = ?", id);
+            if (existing.isEmpty()) {
+                jdbcTemplate.update("insert into users (" + USER_COLUMNS + ") values (?, ?, ?, ?, ?)",
+                        id, user.get("username"), user.get("email"), user.get("created_at"), user.get("updated_at"));
+            } else if (lastModified(user).after(lastModified(existing.get(0)))) {
+                jdbcTemplate.update("update users set username = ?, email = ?, created_at = ?, updated_at = ? where id = ?",
+                        user.get("username"), user.get("email"), user.get("created_at"), user.get("updated_at"), id);
+            } else {
+                return false;
+            }
+            jdbcTemplate.update("delete from address where user_id = ?", id);
+            List<Object[]> rows = new ArrayList<>();
+            for (Map<String, Object> address : addresses) {
+                rows.add(new Object[]{address.get("id"), address.get("street"), address.get("city"), address.get("state"),
+                        address.get("zip_code"), address.get("country"), address.get("type"), address.get("user_id")});
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate("insert into address (" + ADDRESS_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(written);
+    }
+
+    private static Timestamp lastModified(Map<String, Object> row) {
+        Object updatedAt = row.get("updated_at");
+        return toTimestamp(updatedAt != null ? updatedAt : row.get("created_at"));
+    }
+
+    private static Timestamp toTimestamp(Object value) {
+        if (value instanceof Timestamp timestamp) return timestamp;
+        if (value instanceof LocalDateTime localDateTime) return Timestamp.valueOf(localDateTime);
+        throw new IllegalStateException("Unexpected timestamp value " + value);
+    }
+
+    private static TransactionTemplate transactionTemplate(DataSource dataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+}
@@ -0,0 +1,223 @@
+package com.ecom.userservice.warmup;
+
+import com.ecom.userservice.cache.UserResponseCache;
+import com.ecom.userservice.controllers.UserController;
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.exceptions.UsernameNotFoundException;
+import com.ecom.userservice.hotkeys.HotKeyProperties;
+import com.ecom.userservice.hotkeys.HotKeyTracker;
+import com.ecom.userservice.hotkeys.PinnedUserResponseCache;
+import com.ecom.userservice.repositories.UserRepository;
+import com.ecom.userservice.security.JwtAuthenticationFilter;
+import com.ecom.userservice.security.JwtProperties;
+import com.ecom.userservice.services.UserService;
+import com.ecom.userservice.services.UserServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the instance out of Eureka rotation until the hot request paths are JIT-compiled.
+ * The instance registers as STARTING ({@code eureka.instance.initial-status}); once the
+ * application is ready, synthetic requests run through {@link JwtAuthenticationFilter},
+ * {@link UserController}, {@link UserServiceImpl} and the Redis serializers against
+ * {@link WarmupStubs} until the iteration target or the time budget is reached, and only
+ * then is the status switched to UP.
+ */
+@Component
+public class JitWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+    // Silenced while warming up, so thousands of synthetic requests do not flood the log.
+    private static final String APPLICATION_LOGGER = "com.ecom.userservice";
+    private static final int WARMUP_USERS = 64;
+    // Pinned before the first iteration and requested every fifth one, so the pinned-response
+    // branch of UserController is compiled along with the Redis one.
+    private static final String HOT_USER_ID = WarmupStubs.USER_ID_PREFIX + "hot";
+
+    private final WarmupProperties properties;
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final JwtProperties jwtProperties;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> userResponseRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<LoggingSystem> loggingSystem;
+
+    public JitWarmup(WarmupProperties properties, JwtAuthenticationFilter jwtAuthenticationFilter, JwtProperties jwtProperties,
+                     RedisTemplate<String, Object> redisTemplate, RedisTemplate<String, byte[]> userResponseRedisTemplate,
+                     ObjectMapper objectMapper, ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                     ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<LoggingSystem> loggingSystem) {
+        this.properties = properties;
+        this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.jwtProperties = jwtProperties;
+        this.redisTemplate = redisTemplate;
+        this.userResponseRedisTemplate = userResponseRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.applicationInfoManager = applicationInfoManager;
+        this.meterRegistry = meterRegistry;
+        this.loggingSystem = loggingSystem;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAndGoLive() {
+        if (properties.isEnabled()) {
+            try {
+                warmUp();
+            } catch (RuntimeException ex) {
+                // A failed warm-up only costs latency; it must never keep the instance out of rotation.
+                log.warn("JIT warm-up failed, going UP without it", ex);
+            }
+        }
+        applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+        log.info("Instance status set to UP");
+    }
+
+    /** @return number of completed iterations */
+    int warmUp() {
+        Harness harness = new Harness();
+        long deadline = System.nanoTime() + properties.getTimeBudget().toNanos();
+        long compilationStart = compilationTimeMillis();
+        long start = System.nanoTime();
+        int completed = 0;
+        LogLevel previousLevel = quietApplicationLogs();
+        try {
+            while (completed < properties.getIterations() && System.nanoTime() < deadline) {
+                harness.run(completed);
+                completed++;
+            }
+        } finally {
+            restoreApplicationLogs(previousLevel);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        boolean budgetExhausted = completed < properties.getIterations();
+        meterRegistry.ifAvailable(registry -> Timer.builder("userservice.warmup.duration")
+                .description("Time spent warming up before reporting UP")
+                .tag("outcome", budgetExhausted ? "time-budget" : "completed")
+                .register(registry)
+                .record(elapsed));
+        log.info("JIT warm-up " + (budgetExhausted ? "stopped at time budget" : "completed") + " after " + completed
+                + " iterations in " + elapsed.toMillis() + " ms (" + (compilationTimeMillis() - compilationStart)
+                + " ms JIT compilation)");
+        return completed;
+    }
+
+    private LogLevel quietApplicationLogs() {
+        LoggingSystem logging = loggingSystem.getIfAvailable();
+        if (logging == null) return null;
+        LoggerConfiguration configuration = logging.getLoggerConfiguration(APPLICATION_LOGGER);
+        logging.setLogLevel(APPLICATION_LOGGER, LogLevel.WARN);
+        return configuration == null ? null : configuration.getConfiguredLevel();
+    }
+
+    private void restoreApplicationLogs(LogLevel previousLevel) {
+        loggingSystem.ifAvailable(logging -> logging.setLogLevel(APPLICATION_LOGGER, previousLevel));
+    }
+
+    private static long compilationTimeMillis() {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported() ? compilation.getTotalCompilationTime() : 0;
+    }
+
+    /**
+     * A private copy of the request path wired to stubs. Its hot-key tracker and circuit
+     * breaker are separate too, so synthetic traffic leaves no trace in the live ones.
+     */
+    private final class Harness {
+        private final UserController userController;
+        private final String bearerToken;
+
+        Harness() {
+            UserRepository userRepository = WarmupStubs.userRepository();
+            UserService userService = new UserServiceImpl(userRepository,
+                    WarmupStubs.inMemoryRedisTemplate(redisTemplate), event -> { }, CircuitBreaker.ofDefaults("warmup"));
+            UserResponseCache userResponseCache = new UserResponseCache(WarmupStubs.inMemoryRedisTemplate(userResponseRedisTemplate),
+                    objectMapper, CircuitBreaker.ofDefaults("warmup"));
+            HotKeyProperties hotKeyProperties = new HotKeyProperties();
+            HotKeyTracker hotKeyTracker = new HotKeyTracker(hotKeyProperties);
+            for (long i = 0; i < hotKeyProperties.getPinThreshold(); i++) {
+                hotKeyTracker.record(HOT_USER_ID);
+            }
+            hotKeyTracker.decay();
+            this.userController = new UserController(userService, userResponseCache, hotKeyTracker,
+                    new PinnedUserResponseCache(hotKeyTracker, userRepository));
+            this.bearerToken = jwtProperties.getSecret() == null ? null : "Bearer " + Jwts.builder()
+                    .setSubject("warmup")
+                    .claim("roles", List.of("CUSTOMER"))
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(System.currentTimeMillis() + properties.getTimeBudget().toMillis() + 60_000))
+                    .signWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)))
+                    .compact();
+        }
+
+        void run(int iteration) {
+            String id = iteration % 5 == 0 ? HOT_USER_ID : WarmupStubs.USER_ID_PREFIX + (iteration % WARMUP_USERS);
+            try {
+                authenticate("/users/" + id);
+                // Alternate identity and gzip bodies, and every third request revalidates its ETag.
+                String acceptEncoding = iteration % 2 == 0 ? "gzip, deflate" : null;
+                String ifNoneMatch = iteration % 3 == 0 ? userController.getUserDetails(id, null, webRequest("/users/" + id, Map.of()))
+                        .getHeaders().getETag() : null;
+                userController.getUserDetails(id, acceptEncoding, webRequest("/users/" + id, ifNoneMatch == null
+                        ? Map.of() : Map.of(HttpHeaders.IF_NONE_MATCH, ifNoneMatch)));
+                if (iteration % 10 == 0) {
+                    objectMapper.writeValueAsBytes(userController.listUsers(null, null, null, 20));
+                    objectMapper.writeValueAsBytes(userController.listUsers("warmup", null, null, 20));
+                    // Registration ids must not look like existing warm-up users, or the save is refused.
+                    UserResponseDto registration = objectMapper.readValue(objectMapper.writeValueAsBytes(
+                            new UserResponseDto("new-" + iteration, "warmup-user", "warmup@example.invalid")),
+                            UserResponseDto.class);
+                    userController.registerUser(registration);
+                }
+            } catch (UsernameNotFoundException | IOException ex) {
+                throw new IllegalStateException("Warm-up request failed", ex);
+            }
+        }
+
+        private void authenticate(String uri) {
+            if (bearerToken == null) return;
+            HttpServletRequest request = WarmupStubs.request("GET", uri, Map.of(HttpHeaders.AUTHORIZATION, bearerToken));
+            try {
+                jwtAuthenticationFilter.doFilter(request, WarmupStubs.response(), (req, res) -> { });
+            } catch (IOException | ServletException ex) {
+                throw new IllegalStateException("Warm-up authentication failed", ex);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }
+
+        private ServletWebRequest webRequest(String uri, Map<String, String> headers) {
+            return new ServletWebRequest(WarmupStubs.request("GET", uri, headers), WarmupStubs.response());
+        }
+    }
+}
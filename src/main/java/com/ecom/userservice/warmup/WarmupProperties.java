@@ -0,0 +1,19 @@
+package com.ecom.userservice.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "userservice.warmup")
+@Data
+public class WarmupProperties {
+    private boolean enabled = true;
+    // Synthetic requests per path. HotSpot compiles a method with C2 after roughly 5000
+    // invocations (Tier4InvocationThreshold), so the default leaves some margin.
+    private int iterations = 10000;
+    // Upper bound on the warm-up; the instance goes UP when either limit is reached.
+    private Duration timeBudget = Duration.ofSeconds(30);
+}
@@ -0,0 +1,235 @@
+package com.ecom.userservice.warmup;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
+import com.ecom.userservice.models.User;
+import com.ecom.userservice.repositories.UserRepository;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-ins for the servlet container, Redis and MySQL, so warm-up traffic runs the
+ * real filter, controller, service and serializer code without reaching any backend.
+ */
+final class WarmupStubs {
+
+    static final String USER_ID_PREFIX = "warmup-";
+    private static final LocalDateTime LAST_MODIFIED = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private WarmupStubs() {
+    }
+
+    /**
+     * A template whose hash operations keep serialized bytes in memory. Values go through the
+     * serializers of {@code serializersFrom}, so the real (de)serialization code runs.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> RedisTemplate<K, V> inMemoryRedisTemplate(RedisTemplate<K, V> serializersFrom) {
+        RedisSerializer<Object> fieldSerializer = (RedisSerializer<Object>) serializersFrom.getHashKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) serializersFrom.getHashValueSerializer();
+        Map<String, byte[]> store = new ConcurrentHashMap<>();
+        HashOperations<K, Object, Object> hashOperations = stub(HashOperations.class, (method, args) -> {
+            switch (method.getName()) {
+                case "get":
+                    return valueSerializer.deserialize(store.get(storeKey(args[0], fieldSerializer.serialize(args[1]))));
+                case "multiGet": {
+                    List<Object> values = new ArrayList<>();
+                    for (Object field : (Collection<?>) args[1]) {
+                        values.add(valueSerializer.deserialize(store.get(storeKey(args[0], fieldSerializer.serialize(field)))));
+                    }
+                    return values;
+                }
+                case "put":
+                    store.put(storeKey(args[0], fieldSerializer.serialize(args[1])), valueSerializer.serialize(args[2]));
+                    return null;
+                case "putAll":
+                    ((Map<?, ?>) args[1]).forEach((field, value) ->
+                            store.put(storeKey(args[0], fieldSerializer.serialize(field)), valueSerializer.serialize(value)));
+                    return null;
+                default:
+                    return null;
+            }
+        });
+        return new RedisTemplate<>() {
+            @Override
+            public <HK, HV> HashOperations<K, HK, HV> opsForHash() {
+                return (HashOperations<K, HK, HV>) (HashOperations<K, ?, ?>) hashOperations;
+            }
+
+            // Warm-up entries live as long as the harness; expiry is accepted and ignored.
+            @Override
+            public Boolean expire(K key, long timeout, TimeUnit unit) {
+                return true;
+            }
+
+            @Override
+            public Boolean delete(K key) {
+                return store.keySet().removeIf(storeKey -> storeKey.startsWith(key + "\u0000"));
+            }
+        };
+    }
+
+    /** Answers every lookup for a {@link #USER_ID_PREFIX} id as an existing user. */
+    static UserRepository userRepository() {
+        return stub(UserRepository.class, (method, args) -> {
+            switch (method.getName()) {
+                case "findById":
+                case "findByUsername": {
+                    String key = (String) args[0];
+                    return key.startsWith(USER_ID_PREFIX)
+                            ? Optional.of(new User(key, "warmup-user", "warmup@example.invalid", new ArrayList<>()))
+                            : Optional.empty();
+                }
+                case "findLastModifiedById":
+                    return Optional.of(LAST_MODIFIED);
+                case "findVersionedById": {
+                    String id = (String) args[0];
+                    return id.startsWith(USER_ID_PREFIX)
+                            ? Optional.of(new VersionedUserDto(id, "warmup-user", "warmup@example.invalid", LAST_MODIFIED))
+                            : Optional.empty();
+                }
+                case "save":
+                    return args[0];
+                case "findResponsesByIdIn":
+                    return ((Collection<?>) args[0]).stream()
+                            .map(id -> new UserResponseDto((String) id, "warmup-user", "warmup@example.invalid"))
+                            .toList();
+                case "findPageAfter":
+                case "findByUsernamePrefixAfter":
+                case "findByEmailPrefixAfter": {
+                    List<UserResponseDto> page = new ArrayList<>();
+                    for (int i = 0; i < 21; i++) {
+                        page.add(new UserResponseDto(USER_ID_PREFIX + i, "warmup-user-" + i, "warmup" + i + "@example.invalid"));
+                    }
+                    return page;
+                }
+                default:
+                    return null;
+            }
+        });
+    }
+
+    static HttpServletRequest request(String method, String uri, Map<String, String> headers) {
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        return stub(HttpServletRequest.class, (invoked, args) -> {
+            switch (invoked.getName()) {
+                case "getMethod":
+                    return method;
+                case "getRequestURI":
+                    return uri;
+                case "getHeader":
+                    return headers.get((String) args[0]);
+                case "getHeaders": {
+                    String value = headers.get((String) args[0]);
+                    return value == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(value));
+                }
+                case "getDateHeader":
+                    return -1L;
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove((String) args[0]);
+                    return null;
+                case "getDispatcherType":
+                    return DispatcherType.REQUEST;
+                case "getRemoteAddr":
+                    return "127.0.0.1";
+                default:
+                    return null;
+            }
+        });
+    }
+
+    static HttpServletResponse response() {
+        Map<String, String> headers = new ConcurrentHashMap<>();
+        int[] status = {200};
+        return stub(HttpServletResponse.class, (invoked, args) -> {
+            switch (invoked.getName()) {
+                case "getStatus":
+                    return status[0];
+                case "setStatus":
+                    status[0] = (Integer) args[0];
+                    return null;
+                case "setHeader":
+                case "addHeader":
+                    headers.put((String) args[0], (String) args[1]);
+                    return null;
+                case "setDateHeader":
+                case "addDateHeader":
+                    headers.put((String) args[0], String.valueOf(args[1]));
+                    return null;
+                case "getHeader":
+                    return headers.get((String) args[0]);
+                case "containsHeader":
+                    return headers.containsKey((String) args[0]);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static String storeKey(Object key, byte[] field) {
+        return key + "\u0000" + new String(field, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    // Methods without an explicit answer get the zero value or an empty collection of their
+    // return type, so callers that unbox or iterate results never see null.
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<?> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(WarmupStubs.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "warm-up stub " + type.getSimpleName();
+                }
+            }
+            Object result = handler.handle(method, args == null ? new Object[0] : args);
+            return result != null ? result : zeroValue(method.getReturnType());
+        });
+    }
+
+    private static Object zeroValue(Class<?> type) {
+        if (type == boolean.class || type == Boolean.class) return false;
+        if (type == int.class || type == Integer.class) return 0;
+        if (type == long.class || type == Long.class) return 0L;
+        if (type == double.class || type == Double.class) return 0.0;
+        if (type == float.class || type == Float.class) return 0.0f;
+        if (type == short.class || type == Short.class) return (short) 0;
+        if (type == byte.class || type == Byte.class) return (byte) 0;
+        if (type == char.class || type == Character.class) return '\0';
+        if (type == List.class || type == Collection.class) return List.of();
+        if (type == Set.class) return Set.of();
+        if (type == Map.class) return Map.of();
+        return null;
+    }
+}
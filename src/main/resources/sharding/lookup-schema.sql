@@ -0,0 +1,9 @@
+-- Global secondary index from username / email to user id, kept on shard 0. Compared
+-- case-insensitively like the users table, so uniqueness checks ignore case.
+create table if not exists user_lookup (
+    lookup_type varchar(16) not null,
+    lookup_value varchar(255) not null,
+    user_id varchar(255) not null,
+    primary key (lookup_type, lookup_value, user_id),
+    index idx_user_lookup_user_id (user_id)
+) default charset=utf8mb4 collate=utf8mb4_0900_ai_ci;
@@ -0,0 +1,26 @@
+-- Collation pinned to MySQL 8's default, utf8mb4_0900_ai_ci: usernames and emails stay
+-- case-insensitive, and ShardRoutingInterceptor merges shard pages in the same order. Shards
+-- with another collation would order keyset pages differently and make them skip or repeat rows.
+create table if not exists users (
+    id varchar(255) not null,
+    username varchar(255),
+    email varchar(255),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    index idx_users_username_id (username, id),
+    index idx_users_email_id (email, id)
+) default charset=utf8mb4 collate=utf8mb4_0900_ai_ci;
+
+create table if not exists address (
+    id varchar(255) not null,
+    street varchar(255),
+    city varchar(255),
+    state varchar(255),
+    zip_code varchar(255),
+    country varchar(255),
+    type varchar(255),
+    user_id varchar(255),
+    primary key (id),
+    index idx_address_user_id (user_id)
+) default charset=utf8mb4 collate=utf8mb4_0900_ai_ci;
@@ -0,0 +1,99 @@
+package com.ecom.userservice.cache;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes allocated per cached GET /users/{id}, on one thread, measured with
+ * {@link ThreadMXBean#getThreadAllocatedBytes(long)}:
+ * <ul>
+ *     <li>DTO path: the Redis value is decoded into a {@link UserResponseDto}, serialized again
+ *     by Jackson and, for gzip clients, compressed for every response;</li>
+ *     <li>byte path: the validators and bodies are copied out of one HMGET reply and written
+ *     out as they are, see {@link UserResponseCache}.</li>
+ * </ul>
+ * Not part of the test suite; run it with {@code scripts/allocation-benchmark.sh}.
+ */
+public final class ResponseAllocationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    // Keeps the JIT from discarding the work being measured.
+    private static volatile long sink;
+
+    private ResponseAllocationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not report per-thread allocation");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        ObjectMapper objectMapper = new ObjectMapper();
+        GenericJackson2JsonRedisSerializer redisSerializer = new GenericJackson2JsonRedisSerializer();
+
+        System.out.printf("%-8s %-9s %12s %12s%n", "body", "encoding", "DTO path", "byte path");
+        List<UserResponseDto> users = List.of(
+                new UserResponseDto("2f1c9e6a-5b7d-4c3e-9a8f-1d2e3f4a5b6c", "alice", "alice@example.com"),
+                new UserResponseDto("2f1c9e6a-5b7d-4c3e-9a8f-1d2e3f4a5b6c", "alice ".repeat(200), "alice@example.com"));
+        for (UserResponseDto user : users) {
+            byte[] redisValue = redisSerializer.serialize(user);
+            byte[] json = objectMapper.writeValueAsBytes(user);
+            byte[] compressed = json.length >= UserResponseCache.GZIP_MIN_SIZE ? gzip(json) : new byte[0];
+            byte[] etag = "\"0123456789abcdef0123456789abcdef\"".getBytes(StandardCharsets.UTF_8);
+            byte[] lastModified = "1700000000000".getBytes(StandardCharsets.UTF_8);
+            for (boolean gzipAccepted : new boolean[]{false, true}) {
+                boolean compress = gzipAccepted && json.length >= UserResponseCache.GZIP_MIN_SIZE;
+                long dtoPath = bytesPerOp(threads, () -> {
+                    // The Redis client hands out a fresh array for every reply.
+                    UserResponseDto dto = (UserResponseDto) redisSerializer.deserialize(redisValue.clone());
+                    byte[] body = objectMapper.writeValueAsBytes(dto);
+                    return compress ? gzip(body) : body;
+                });
+                long bytePath = bytesPerOp(threads, () -> {
+                    List<byte[]> reply = List.of(etag.clone(), lastModified.clone(), json.clone(), compressed.clone());
+                    UserVersionDto version = new UserVersionDto(new String(reply.get(0), StandardCharsets.UTF_8),
+                            Long.parseLong(new String(reply.get(1), StandardCharsets.UTF_8)));
+                    CachedUserResponse response = new CachedUserResponse(version, reply.get(2),
+                            reply.get(3).length == 0 ? null : reply.get(3));
+                    return compress ? response.getGzip() : response.getJson();
+                });
+                System.out.printf("%-8s %-9s %10d B %10d B%n", json.length + " B",
+                        compress ? "gzip" : "identity", dtoPath, bytePath);
+            }
+        }
+    }
+
+    private static long bytesPerOp(ThreadMXBean threads, Callable<byte[]> op) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += op.call().length;
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += op.call().length;
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,183 @@
+package com.ecom.userservice.concurrency;
+
+import com.ecom.userservice.controlleradvice.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = 1_000_000L;
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("test", new ConcurrencyLimitProperties.Limit(initialLimit, 2, 50, 0.5, 2.0));
+    }
+
+    @Test
+    void testTryAcquire_RejectsOnceLimitIsInUse() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejectedCount());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testTryAcquire_LowerShareIsRejectedFirst() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire(0.8));
+        }
+        assertFalse(limiter.tryAcquire(0.8));
+        assertTrue(limiter.tryAcquire(1.0));
+        assertTrue(limiter.tryAcquire(1.0));
+        assertFalse(limiter.tryAcquire(1.0));
+    }
+
+    @Test
+    void testRelease_GrowsLimitAdditivelyWhileSaturatedAndFast() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+
+        for (int i = 0; i < 10; i++) {
+            while (limiter.tryAcquire()) { }
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(14, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_DoesNotGrowLimitWhenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_BacksOffMultiplicativelyAtMostOncePerRoundTrip() {
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test",
+                new ConcurrencyLimitProperties.Limit(40, 2, 50, 0.5, 2.0), clock::get);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(20, limiter.getLimit());
+
+        // Same round trip: the second drop is the same congestion and does not cut again.
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(20, limiter.getLimit());
+
+        clock.addAndGet(1_000_000_000L);
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        limiter.tryAcquire();
+        limiter.release(FAST * 100, false);
+        assertEquals(10, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(1_000_000_000L);
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_DoesNotRelearnNoLoadLatencyWhileSaturated() {
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test",
+                new ConcurrencyLimitProperties.Limit(10, 2, 50, 0.5, 2.0), clock::get);
+
+        // One baseline window while lightly used.
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+        assertEquals(10, limiter.getLimit());
+
+        // Saturated at five times that latency for several baseline windows.
+        int highest = 0;
+        for (int i = 0; i < 5000; i++) {
+            clock.addAndGet(1_000_000_000L);
+            while (limiter.tryAcquire()) { }
+            limiter.release(FAST * 5, false);
+            if (i >= 1000) {
+                highest = Math.max(highest, limiter.getLimit());
+            }
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(2, highest);
+    }
+
+    @Test
+    void testBindTo_PublishesLimitAndRejections() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        assertEquals(1.0, registry.get("userservice.concurrency.limit").tag("limiter", "test").gauge().value());
+        assertEquals(1.0, registry.get("userservice.concurrency.rejected").tag("limiter", "test").functionCounter().count());
+    }
+
+    @RestController
+    static class StubController {
+        @GetMapping("/users/slow")
+        public String slow() {
+            throw new QueryTimeoutException("timed out");
+        }
+
+        @RequestMapping("/users/ok")
+        public String ok() {
+            return "ok";
+        }
+    }
+
+    @Test
+    void testInterceptor_ShedsReadsBeforeRegistrationAndFeedsBackDatabaseTimeouts() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StubController())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addMappedInterceptors(new String[]{"/users/**"}, new ConcurrencyLimitInterceptor(limiter, 0.5, 3))
+                .build();
+
+        mockMvc.perform(get("/users/slow")).andExpect(status().isInternalServerError());
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        // Limit 2 with half for reads: one read in flight uses up the read share.
+        assertTrue(limiter.tryAcquire(0.5));
+        mockMvc.perform(get("/users/ok"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+        // Registration may still use the rest of the limit.
+        mockMvc.perform(post("/users/ok")).andExpect(status().isOk());
+    }
+}
@@ -1,16 +1,31 @@
 package com.ecom.userservice.controllers;
 
+import com.ecom.userservice.cache.UserResponseCache;
 import com.ecom.userservice.controllers.UserController;
+import com.ecom.userservice.dtos.UserPageResponseDto;
 import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
+import com.ecom.userservice.controlleradvice.GlobalExceptionHandler;
+import com.ecom.userservice.exceptions.InvalidPageRequestException;
 import com.ecom.userservice.exceptions.UsernameNotFoundException;
+import com.ecom.userservice.hotkeys.HotKeyProperties;
+import com.ecom.userservice.hotkeys.HotKeyTracker;
+import com.ecom.userservice.hotkeys.PinnedUserResponseCache;
+import com.ecom.userservice.repositories.UserRepository;
+import com.ecom.userservice.services.UserChangedEvent;
 import com.ecom.userservice.services.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -19,7 +34,15 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -32,8 +55,21 @@ public class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RedisTemplate<String, byte[]> userResponseRedisTemplate;
+
+    @Mock
+    private HashOperations<String, String, byte[]> userResponseHashOperations;
+
     private MockMvc mockMvc;
 
+    private HotKeyTracker hotKeyTracker;
+
+    private UserResponseCache userResponseCache;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @RestControllerAdvice
@@ -46,7 +82,14 @@ public class UserControllerTest {
 
     @BeforeEach
     void setup() {
-        UserController controller = new UserController(userService);
+        lenient().when(userResponseRedisTemplate.<String, byte[]>opsForHash()).thenReturn(userResponseHashOperations);
+        userResponseCache = new UserResponseCache(userResponseRedisTemplate, objectMapper,
+                CircuitBreaker.ofDefaults("redis"));
+        HotKeyProperties hotKeyProperties = new HotKeyProperties();
+        hotKeyProperties.setPinThreshold(2);
+        hotKeyTracker = new HotKeyTracker(hotKeyProperties);
+        UserController controller = new UserController(userService, userResponseCache, hotKeyTracker,
+                new PinnedUserResponseCache(hotKeyTracker, userRepository));
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new TestExceptionHandler())
                 .build();
@@ -56,15 +99,52 @@ public class UserControllerTest {
     void testGetUserDetails_ReturnsDto_WhenIdExists() throws Exception {
         String id = "123";
         UserResponseDto dto = new UserResponseDto(id, "John Doe", "john@example.com");
-        when(userService.getUserDetails(id)).thenReturn(dto);
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(dto, new UserVersionDto("\"v1\"", 1_700_000_000_000L)));
 
         mockMvc.perform(get("/users/{id}", id).accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(id)))
                 .andExpect(jsonPath("$.name", is("John Doe")))
-                .andExpect(jsonPath("$.email", is("john@example.com")));
+                .andExpect(jsonPath("$.email", is("john@example.com")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+
+        verify(userService, times(1)).getVersionedUserDetails(id);
+    }
+
+    @Test
+    void testGetUserDetails_ReturnsNotModified_WhenETagMatches() throws Exception {
+        String id = "123";
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(
+                new UserResponseDto(id, "John Doe", "john@example.com"), new UserVersionDto("\"v1\"", 1_700_000_000_000L)));
+
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(userService, times(1)).getVersionedUserDetails(id);
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    void testGetUserDetails_ReturnsNotModified_WhenNotModifiedSince() throws Exception {
+        String id = "123";
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(
+                new UserResponseDto(id, "John Doe", "john@example.com"), new UserVersionDto("\"v1\"", 1_700_000_000_000L)));
+
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.IF_MODIFIED_SINCE, "Tue, 14 Nov 2023 22:13:20 GMT"))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetUserDetails_ReturnsBody_WhenETagIsStale() throws Exception {
+        String id = "123";
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(new UserResponseDto(id, "John Doe", "john@example.com"), new UserVersionDto("\"v2\"", 1_700_000_000_000L)));
 
-        verify(userService, times(1)).getUserDetails(id);
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(id)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v2\""));
     }
 
     @Test
@@ -92,21 +172,21 @@ public class UserControllerTest {
     void testGetUserDetails_DelegatesToServiceWithCorrectId() throws Exception {
         String id = "abc-123_XY";
         UserResponseDto dto = new UserResponseDto(id, "Jane", "jane@example.com");
-        when(userService.getUserDetails(id)).thenReturn(dto);
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(dto, new UserVersionDto("\"v1\"", 1_700_000_000_000L)));
 
         mockMvc.perform(get("/users/{id}", id).accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(id)));
 
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(userService, times(1)).getUserDetails(captor.capture());
+        verify(userService, times(1)).getVersionedUserDetails(captor.capture());
         assertEquals(id, captor.getValue());
     }
 
     @Test
     void testGetUserDetails_PropagatesUsernameNotFoundException_WhenUserMissing() throws Exception {
         String id = "missing-id";
-        when(userService.getUserDetails(id)).thenThrow(new UsernameNotFoundException("not found"));
+        when(userService.getVersionedUserDetails(id)).thenThrow(new UsernameNotFoundException("not found"));
 
         mockMvc.perform(get("/users/{id}", id).accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound())
@@ -122,4 +202,172 @@ public class UserControllerTest {
 
         verifyNoInteractions(userService);
     }
+
+    @Test
+    void testListUsers_UsesKeysetListingWhenNoPrefixGiven() throws Exception {
+        UserPageResponseDto page = new UserPageResponseDto(
+                List.of(new UserResponseDto("1", "ann", "ann@example.com")), "next");
+        when(userService.listUsers("cur", 25)).thenReturn(page);
+
+        mockMvc.perform(get("/users").param("cursor", "cur").param("limit", "25")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id", is("1")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+
+        verify(userService, never()).searchUsers(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testListUsers_MapsOnlyInvalidPageRequestsToBadRequest() throws Exception {
+        UserController controller = new UserController(userService, userResponseCache, hotKeyTracker,
+                new PinnedUserResponseCache(hotKeyTracker, userRepository));
+        MockMvc globalMockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(userService.listUsers("bad", 10)).thenThrow(new InvalidPageRequestException("Malformed page cursor"));
+        when(userService.listUsers("broken", 10)).thenThrow(new IllegalArgumentException("internal detail"));
+
+        globalMockMvc.perform(get("/users").param("cursor", "bad").param("limit", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Bad Request: Malformed page cursor"));
+        globalMockMvc.perform(get("/users").param("cursor", "broken").param("limit", "10"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void testListUsers_DelegatesPrefixSearch() throws Exception {
+        when(userService.searchUsers("an", null, null, 50))
+                .thenReturn(new UserPageResponseDto(List.of(), null));
+
+        mockMvc.perform(get("/users").param("username", "an").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+
+        verify(userService, never()).listUsers(any(), anyInt());
+    }
+
+    private void cacheEntry(String id, String etag, String json) {
+        when(userResponseHashOperations.multiGet(eq("USER_RESPONSES:USER" + id), anyCollection())).thenReturn(List.of(
+                etag.getBytes(StandardCharsets.UTF_8),
+                "1700000000000".getBytes(StandardCharsets.UTF_8),
+                json.getBytes(StandardCharsets.UTF_8),
+                new byte[0]));
+    }
+
+    @Test
+    void testGetUserDetails_ServesCachedBytesAndValidatorsFromOneRedisCall() throws Exception {
+        String id = "123";
+        cacheEntry(id, "\"v1\"", "{\"id\":\"123\",\"name\":\"cached\",\"email\":\"c@example.com\"}");
+
+        mockMvc.perform(get("/users/{id}", id).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Tue, 14 Nov 2023 22:13:20 GMT"))
+                .andExpect(jsonPath("$.name", is("cached")));
+
+        verify(userResponseHashOperations, times(1)).multiGet(eq("USER_RESPONSES:USER" + id), anyCollection());
+        verifyNoMoreInteractions(userResponseHashOperations);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testGetUserDetails_ReturnsNotModifiedFromCachedValidators() throws Exception {
+        String id = "123";
+        cacheEntry(id, "\"v1\"", "{\"name\":\"cached\"}");
+
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUserDetails_CacheMiss_StoresValidatorsNextToBodyWithExpiry() throws Exception {
+        String id = "123";
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(new UserResponseDto(id, "fresh", "f@example.com"), new UserVersionDto("\"v2\"", 1_700_000_000_000L)));
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("fresh")));
+
+        ArgumentCaptor<Map<String, byte[]>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(userResponseHashOperations).putAll(eq("USER_RESPONSES:USER" + id), fields.capture());
+        assertEquals("\"v2\"", new String(fields.getValue().get("etag"), StandardCharsets.UTF_8));
+        assertEquals("1700000000000", new String(fields.getValue().get("lastModified"), StandardCharsets.UTF_8));
+        verify(userResponseRedisTemplate).expire(eq("USER_RESPONSES:USER" + id), any(Duration.class));
+    }
+
+    @Test
+    void testUserChanged_EvictsCachedResponse() {
+        userResponseCache.onUserChanged(new UserChangedEvent(new UserResponseDto("123", "renamed", "r@example.com")));
+
+        verify(userResponseRedisTemplate).delete("USER_RESPONSES:USER123");
+    }
+
+    @Test
+    void testGetUserDetails_ReturnsGzipBodyWithOwnETag_WhenAcceptedAndLargeEnough() throws Exception {
+        String id = "123";
+        String longName = "John Doe ".repeat(150);
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(new UserResponseDto(id, longName, "john@example.com"), new UserVersionDto("\"v1\"", 1_700_000_000_000L)));
+
+        byte[] body = mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            UserResponseDto decoded = objectMapper.readValue(in, UserResponseDto.class);
+            assertEquals(longName, decoded.getName());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUserDetails_ServesSmallBodyUncompressedEvenWhenGzipAccepted() throws Exception {
+        String id = "123";
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(new UserResponseDto(id, "John Doe", "john@example.com"), new UserVersionDto("\"v1\"", 1_700_000_000_000L)));
+
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(jsonPath("$.name", is("John Doe")));
+
+        ArgumentCaptor<Map<String, byte[]>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(userResponseHashOperations).putAll(eq("USER_RESPONSES:USER" + id), fields.capture());
+        assertEquals(0, fields.getValue().get("gzip").length);
+
+        // Served from the cached entry: still identity, and the plain ETag revalidates.
+        cacheEntry(id, "\"v1\"", new String(fields.getValue().get("json"), StandardCharsets.UTF_8));
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetUserDetails_ServesHotIdFromPinnedCopyWithoutRedisOrDatabase() throws Exception {
+        String id = "celebrity";
+        when(userService.getVersionedUserDetails(id)).thenReturn(new VersionedUserDto(new UserResponseDto(id, "Famous", "famous@example.com"), new UserVersionDto("\"v1\"", 1_700_000_000_000L)));
+
+        mockMvc.perform(get("/users/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", id)).andExpect(status().isOk());
+        hotKeyTracker.decay();
+        assertTrue(hotKeyTracker.isHot(id));
+        // First request after pinning fills the in-process copy.
+        mockMvc.perform(get("/users/{id}", id)).andExpect(status().isOk());
+        clearInvocations(userService, userResponseHashOperations);
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(jsonPath("$.name", is("Famous")));
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(userService, userResponseHashOperations);
+    }
 }
@@ -0,0 +1,183 @@
+package com.ecom.userservice.grpc;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.exceptions.UsernameNotFoundException;
+import com.ecom.userservice.grpc.proto.GetUserRequest;
+import com.ecom.userservice.grpc.proto.GetUsersRequest;
+import com.ecom.userservice.grpc.proto.GetUsersResponse;
+import com.ecom.userservice.grpc.proto.UserResponse;
+import com.ecom.userservice.grpc.proto.UserServiceGrpc;
+import com.ecom.userservice.grpc.proto.WatchUsersRequest;
+import com.ecom.userservice.services.UserChangedEvent;
+import com.ecom.userservice.services.UserService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserGrpcServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    private UserWatchRegistry watchRegistry;
+    private Server server;
+    private ManagedChannel channel;
+    private UserServiceGrpc.UserServiceBlockingStub stub;
+
+    @BeforeEach
+    void setup() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        GrpcServerProperties properties = new GrpcServerProperties();
+        properties.setMaxBatchSize(3);
+        properties.setMaxWatchBacklog(2);
+        watchRegistry = new UserWatchRegistry(properties);
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new UserGrpcService(userService, watchRegistry, properties))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = UserServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void teardown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testGetUser_ReturnsMappedUser() throws Exception {
+        when(userService.getUserDetails("1")).thenReturn(new UserResponseDto("1", "ann", "ann@example.com"));
+
+        UserResponse response = stub.getUser(GetUserRequest.newBuilder().setId("1").build());
+
+        assertEquals("1", response.getId());
+        assertEquals("ann", response.getName());
+        assertEquals("ann@example.com", response.getEmail());
+    }
+
+    @Test
+    void testGetUser_MapsMissingUserToNotFound() throws Exception {
+        when(userService.getUserDetails("404")).thenThrow(new UsernameNotFoundException("User not found"));
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class,
+                () -> stub.getUser(GetUserRequest.newBuilder().setId("404").build()));
+
+        assertEquals(Status.Code.NOT_FOUND, ex.getStatus().getCode());
+    }
+
+    @Test
+    void testGetUsers_ReturnsFoundUsersAndMissingIds() {
+        when(userService.getUsersDetails(List.of("1", "2")))
+                .thenReturn(List.of(new UserResponseDto("2", "bob", null)));
+
+        GetUsersResponse response = stub.getUsers(GetUsersRequest.newBuilder().addIds("1").addIds("2").build());
+
+        assertEquals(1, response.getUsersCount());
+        assertEquals("bob", response.getUsers(0).getName());
+        assertEquals("", response.getUsers(0).getEmail());
+        assertEquals(List.of("1"), response.getMissingIdsList());
+    }
+
+    @Test
+    void testGetUsers_RejectsOversizedBatch() {
+        GetUsersRequest request = GetUsersRequest.newBuilder().addAllIds(List.of("1", "2", "3", "4")).build();
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () -> stub.getUsers(request));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, ex.getStatus().getCode());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testWatchUsers_SendsSnapshotThenMatchingChanges() {
+        when(userService.getUsersDetails(List.of("1")))
+                .thenReturn(List.of(new UserResponseDto("1", "ann", "ann@example.com")));
+
+        Iterator<UserResponse> stream = stub.watchUsers(WatchUsersRequest.newBuilder().addIds("1").build());
+
+        assertEquals("ann", stream.next().getName());
+        assertEquals(1, watchRegistry.size());
+
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("2", "bob", "bob@example.com")));
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("1", "ann2", "ann@example.com")));
+
+        assertEquals("ann2", stream.next().getName());
+    }
+
+    @Test
+    void testWatchUsers_ChangesDuringSnapshotAreSentOnceAndNeverOlderThanIt() {
+        // Two writes land while the snapshot is being read, and the snapshot already sees both.
+        when(userService.getUsersDetails(List.of("1"))).thenAnswer(invocation -> {
+            watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("1", "ann2", "ann@example.com")));
+            watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("1", "ann3", "ann@example.com")));
+            return List.of(new UserResponseDto("1", "ann3", "ann@example.com"));
+        });
+
+        Iterator<UserResponse> stream = stub.watchUsers(WatchUsersRequest.newBuilder().addIds("1").build());
+
+        assertEquals("ann3", stream.next().getName());
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("1", "ann4", "ann@example.com")));
+        assertEquals("ann4", stream.next().getName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWatchUsers_HoldsOnlyNewestChangePerUserUntilStreamIsReady() {
+        ServerCallStreamObserver<UserResponse> observer = mock(ServerCallStreamObserver.class);
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        watchRegistry.register(Set.of(), observer, List::of);
+        verify(observer).setOnReadyHandler(onReady.capture());
+
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("1", "ann2", "ann@example.com")));
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("2", "bob", "bob@example.com")));
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("1", "ann3", "ann@example.com")));
+        verify(observer, never()).onNext(any());
+
+        when(observer.isReady()).thenReturn(true);
+        onReady.getValue().run();
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onNext(UserGrpcService.toMessage(new UserResponseDto("2", "bob", "bob@example.com")));
+        inOrder.verify(observer).onNext(UserGrpcService.toMessage(new UserResponseDto("1", "ann3", "ann@example.com")));
+        verify(observer, times(2)).onNext(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWatchUsers_ClosesStreamThatFallsTooFarBehind() {
+        ServerCallStreamObserver<UserResponse> observer = mock(ServerCallStreamObserver.class);
+        watchRegistry.register(Set.of(), observer, List::of);
+
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("1", "ann", "ann@example.com")));
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("2", "bob", "bob@example.com")));
+        watchRegistry.onUserChanged(new UserChangedEvent(new UserResponseDto("3", "cat", "cat@example.com")));
+
+        ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(observer).onError(error.capture());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(error.getValue()).getCode());
+        assertEquals(0, watchRegistry.size());
+        verify(observer, never()).onNext(any());
+    }
+}
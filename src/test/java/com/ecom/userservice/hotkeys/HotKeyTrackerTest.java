@@ -0,0 +1,77 @@
+package com.ecom.userservice.hotkeys;
+
+import com.ecom.userservice.dtos.HotKeyDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotKeyTrackerTest {
+
+    private static HotKeyTracker tracker(int topK, long pinThreshold) {
+        HotKeyProperties properties = new HotKeyProperties();
+        properties.setTopK(topK);
+        properties.setPinThreshold(pinThreshold);
+        return new HotKeyTracker(properties);
+    }
+
+    @Test
+    void testCountMinSketch_NeverUndercountsAndDecayHalves() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        for (int i = 0; i < 1000; i++) sketch.add("key-" + (i % 100));
+        for (int i = 0; i < 500; i++) sketch.add("hot");
+
+        assertTrue(sketch.estimate("hot") >= 500);
+        assertTrue(sketch.estimate("key-7") >= 10);
+
+        long before = sketch.estimate("hot");
+        sketch.decay();
+        assertEquals(before / 2, sketch.estimate("hot"));
+    }
+
+    @Test
+    void testRecord_FindsHeavyHittersAmongManyColdIds() throws Exception {
+        HotKeyTracker tracker = tracker(4, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    tracker.record("cold-" + i);
+                    if (i % 4 == 0) tracker.record("celebrity");
+                    if (i % 10 == 0) tracker.record("service-account");
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<HotKeyDto> hotKeys = tracker.hotKeys();
+        assertTrue(hotKeys.size() <= 4);
+        assertEquals("celebrity", hotKeys.get(0).getId());
+        assertEquals("service-account", hotKeys.get(1).getId());
+        assertTrue(hotKeys.get(0).getEstimatedCount() >= 20_000);
+    }
+
+    @Test
+    void testDecay_PinsAboveThresholdAndUnpinsOnceCooledBelowHalf() {
+        HotKeyTracker tracker = tracker(8, 100);
+        for (int i = 0; i < 150; i++) tracker.record("hot");
+        for (int i = 0; i < 20; i++) tracker.record("warm");
+
+        tracker.decay();
+        assertTrue(tracker.isHot("hot"));
+        assertFalse(tracker.isHot("warm"));
+
+        // 75 after decay: below the threshold but above half of it, so it stays pinned.
+        tracker.decay();
+        assertTrue(tracker.isHot("hot"));
+
+        tracker.decay();
+        tracker.decay();
+        assertFalse(tracker.isHot("hot"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecom.userservice.hotkeys;
+
+import com.ecom.userservice.cache.CachedUserResponse;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.ecom.userservice.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PinnedUserResponseCacheTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private HotKeyTracker hotKeyTracker;
+
+    private PinnedUserResponseCache pinnedUserResponseCache;
+
+    @BeforeEach
+    void setup() {
+        HotKeyProperties properties = new HotKeyProperties();
+        properties.setPinThreshold(2);
+        hotKeyTracker = new HotKeyTracker(properties);
+        pinnedUserResponseCache = new PinnedUserResponseCache(hotKeyTracker, userRepository);
+    }
+
+    private CachedUserResponse pin(String id, LocalDateTime lastModified) {
+        hotKeyTracker.record(id);
+        hotKeyTracker.record(id);
+        hotKeyTracker.decay();
+        assertTrue(hotKeyTracker.isHot(id));
+        byte[] json = ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+        CachedUserResponse response = new CachedUserResponse(UserVersionDto.of(id, lastModified), json, json);
+        pinnedUserResponseCache.offer(id, response);
+        return response;
+    }
+
+    @Test
+    void testRevalidate_KeepsEntryWhileTheDatabaseVersionIsUnchanged() {
+        CachedUserResponse pinned = pin("celebrity", CREATED_AT);
+        when(userRepository.findLastModifiedById("celebrity")).thenReturn(Optional.of(CREATED_AT));
+
+        pinnedUserResponseCache.revalidate();
+
+        assertSame(pinned, pinnedUserResponseCache.get("celebrity"));
+    }
+
+    @Test
+    void testRevalidate_DropsEntryWhenTheVersionChangesUnderneathIt() {
+        pin("celebrity", CREATED_AT);
+        // Written through another instance: no local event, only a newer timestamp in the database.
+        when(userRepository.findLastModifiedById("celebrity")).thenReturn(Optional.of(CREATED_AT.plusSeconds(5)));
+
+        pinnedUserResponseCache.revalidate();
+
+        assertNull(pinnedUserResponseCache.get("celebrity"));
+        assertEquals(0, pinnedUserResponseCache.size());
+    }
+
+    @Test
+    void testRevalidate_DropsEntryForDeletedUserAndKeepsItWhenTheDatabaseFails() {
+        pin("gone", CREATED_AT);
+        CachedUserResponse kept = pin("flaky", CREATED_AT);
+        when(userRepository.findLastModifiedById("gone")).thenReturn(Optional.empty());
+        when(userRepository.findLastModifiedById("flaky")).thenThrow(new IllegalStateException("connection refused"));
+
+        pinnedUserResponseCache.revalidate();
+
+        assertNull(pinnedUserResponseCache.get("gone"));
+        assertSame(kept, pinnedUserResponseCache.get("flaky"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecom.userservice.repositories;
+
+import com.ecom.userservice.models.Address;
+import com.ecom.userservice.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The second-level cache is only filled and read across transactions, so each repository call
+// here commits on its own instead of running inside the usual rolled-back test transaction.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        userRepository.deleteAllById(List.of("l2-1", "l2-2"));
+    }
+
+    @Test
+    void testFindById_SecondLoadIsServedFromEntityAndCollectionRegions() {
+        List<Address> addresses = new ArrayList<>();
+        addresses.add(new Address("l2-a1", "Main St", "Springfield", "IL", "62701", "US", "home"));
+        userRepository.save(new User("l2-1", "cached", "cached@example.com", addresses));
+
+        userRepository.findById("l2-1");
+        User found = userRepository.findById("l2-1").orElseThrow();
+
+        assertThat(found.getAddresses()).extracting(Address::getCity).containsExactly("Springfield");
+        assertThat(region("users").getHitCount()).isPositive();
+        assertThat(region("users.addresses").getHitCount()).isPositive();
+        assertThat(region("addresses").getHitCount()).isPositive();
+    }
+
+    @Test
+    void testExistsByUsername_RepeatedCheckHitsQueryCacheAndIsInvalidatedByWrites() {
+        userRepository.save(new User("l2-1", "taken", "taken@example.com", new ArrayList<>()));
+
+        assertThat(userRepository.existsByUsername("fresh")).isFalse();
+        assertThat(userRepository.existsByUsername("fresh")).isFalse();
+        assertThat(statistics.getQueryRegionStatistics("user-queries").getHitCount()).isEqualTo(1);
+
+        userRepository.save(new User("l2-2", "fresh", "fresh@example.com", new ArrayList<>()));
+
+        assertThat(userRepository.existsByUsername("fresh")).isTrue();
+    }
+
+    private CacheRegionStatistics region(String name) {
+        return statistics.getDomainDataRegionStatistics(name);
+    }
+}
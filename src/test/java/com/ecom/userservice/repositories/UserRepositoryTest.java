@@ -1,11 +1,16 @@
 package com.ecom.userservice.repositories;
 
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
 import com.ecom.userservice.models.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,4 +51,58 @@ class UserRepositoryTest {
         assertThat(userRepository.existsByUsername("checkuser")).isTrue();
         assertThat(userRepository.existsByEmail("check@example.com")).isTrue();
     }
+
+    @Test
+    void testFindVersionedById_ReadsBodyAndVersionFromTheSameRow() {
+        User saved = userRepository.saveAndFlush(new User("v1", "versioned", "versioned@example.com", new ArrayList<>()));
+
+        Optional<VersionedUserDto> found = userRepository.findVersionedById("v1");
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getUser().getName()).isEqualTo("versioned");
+        assertThat(found.get().getUser().getEmail()).isEqualTo("versioned@example.com");
+        assertThat(found.get().getVersion().getEtag())
+                .isEqualTo(UserVersionDto.of("v1", saved.getUpdatedAt()).getEtag());
+        assertThat(userRepository.findVersionedById("missing")).isEmpty();
+    }
+
+    @Test
+    void testFindPageAfter_SeeksPastCursorInIdOrder() {
+        userRepository.save(new User("k3", "carol", "carol@example.com", new ArrayList<>()));
+        userRepository.save(new User("k1", "alice", "alice@example.com", new ArrayList<>()));
+        userRepository.save(new User("k2", "bob", "bob@example.com", new ArrayList<>()));
+
+        List<UserResponseDto> first = userRepository.findPageAfter("", Limit.of(2));
+        List<UserResponseDto> second = userRepository.findPageAfter(first.get(1).getId(), Limit.of(2));
+
+        assertThat(first).extracting(UserResponseDto::getId).containsExactly("k1", "k2");
+        assertThat(second).extracting(UserResponseDto::getId).containsExactly("k3");
+        assertThat(second.get(0).getName()).isEqualTo("carol");
+    }
+
+    @Test
+    void testFindByUsernamePrefixAfter_MatchesPrefixAndTreatsWildcardsLiterally() {
+        userRepository.save(new User("p1", "ann", "ann@example.com", new ArrayList<>()));
+        userRepository.save(new User("p2", "anna", "anna@example.com", new ArrayList<>()));
+        userRepository.save(new User("p3", "bob", "bob2@example.com", new ArrayList<>()));
+        userRepository.save(new User("p4", "a_x", "ax@example.com", new ArrayList<>()));
+
+        List<UserResponseDto> found = userRepository.findByUsernamePrefixAfter("an%", "", "", Limit.of(10));
+        List<UserResponseDto> afterAnn = userRepository.findByUsernamePrefixAfter("an%", "ann", "p1", Limit.of(10));
+        List<UserResponseDto> literalUnderscore = userRepository.findByUsernamePrefixAfter("a\\_%", "", "", Limit.of(10));
+
+        assertThat(found).extracting(UserResponseDto::getName).containsExactly("ann", "anna");
+        assertThat(afterAnn).extracting(UserResponseDto::getName).containsExactly("anna");
+        assertThat(literalUnderscore).extracting(UserResponseDto::getId).containsExactly("p4");
+    }
+
+    @Test
+    void testFindByEmailPrefixAfter_OrdersByEmailThenId() {
+        userRepository.save(new User("e2", "zed", "shared@example.com", new ArrayList<>()));
+        userRepository.save(new User("e1", "yan", "shared@example.com", new ArrayList<>()));
+
+        List<UserResponseDto> found = userRepository.findByEmailPrefixAfter("shared%", "", "", Limit.of(10));
+
+        assertThat(found).extracting(UserResponseDto::getId).containsExactly("e1", "e2");
+    }
 }
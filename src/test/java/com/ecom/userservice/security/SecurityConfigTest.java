@@ -0,0 +1,108 @@
+package com.ecom.userservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(SecurityConfigTest.Config.class)
+public class SecurityConfigTest {
+
+    private static final String SECRET = "security-test-secret-with-at-least-32-bytes";
+
+    @Configuration
+    @EnableWebMvc
+    @EnableWebSecurity
+    @Import(SecurityConfig.class)
+    static class Config {
+        @Bean
+        JwtAuthenticationFilter jwtAuthenticationFilter() {
+            JwtProperties properties = new JwtProperties();
+            properties.setSecret(SECRET);
+            return new JwtAuthenticationFilter(new JwtService(properties));
+        }
+
+        @Bean
+        StubController stubController() {
+            return new StubController();
+        }
+    }
+
+    @RestController
+    static class StubController {
+        @GetMapping("/users")
+        public String listUsers() {
+            return "[]";
+        }
+
+        @GetMapping("/users/{id}")
+        public String getUser() {
+            return "{}";
+        }
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    private static String bearer(String role) {
+        return "Bearer " + Jwts.builder()
+                .setSubject("user")
+                .claim("roles", List.of(role))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Test
+    void testListUsers_RejectsAnonymousRequests() throws Exception {
+        mockMvc.perform(get("/users").param("email", "a")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testListUsers_RejectsNonAdmins() throws Exception {
+        mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, bearer("CUSTOMER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testListUsers_AllowsAdmins() throws Exception {
+        mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, bearer("ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetUser_StaysOpen() throws Exception {
+        mockMvc.perform(get("/users/42")).andExpect(status().isOk());
+    }
+}
@@ -1,18 +1,32 @@
 package com.ecom.userservice.services;
 
+import com.ecom.userservice.dtos.UserPageResponseDto;
 import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.dtos.UserVersionDto;
+import com.ecom.userservice.dtos.VersionedUserDto;
+import com.ecom.userservice.exceptions.InvalidPageRequestException;
 import com.ecom.userservice.exceptions.UsernameNotFoundException;
 import com.ecom.userservice.models.User;
 import com.ecom.userservice.repositories.UserRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +45,11 @@ public class UserServiceImplTest {
     @Mock
     private HashOperations hashOperations;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final CircuitBreaker redisCircuitBreaker = CircuitBreaker.ofDefaults("redis");
+
     @Captor
     private ArgumentCaptor<UserResponseDto> userResponseDtoCaptor;
 
@@ -45,7 +64,7 @@ public class UserServiceImplTest {
         when(redisTemplate.opsForHash()).thenReturn(hashOperations);
         when(hashOperations.get("USERS", "USER" + id)).thenReturn(cached);
 
-        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate);
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
 
         UserResponseDto result = service.getUserDetails(id);
 
@@ -67,7 +86,7 @@ public class UserServiceImplTest {
         when(hashOperations.get("USERS", "USER" + id)).thenReturn(null);
         when(userRepository.findById(id)).thenReturn(Optional.of(user));
 
-        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate);
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
 
         UserResponseDto result = service.getUserDetails(id);
 
@@ -97,7 +116,7 @@ public class UserServiceImplTest {
 
         when(userRepository.save(any(User.class))).thenReturn(saved);
 
-        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate);
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
 
         UserResponseDto response = service.saveUser(request);
 
@@ -111,6 +130,10 @@ public class UserServiceImplTest {
         assertEquals("555", response.getId());
         assertEquals("persistedName", response.getName());
         assertEquals("persisted@example.com", response.getEmail());
+
+        ArgumentCaptor<UserChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertSame(response, eventCaptor.getValue().getUser());
     }
 
     @Test
@@ -121,7 +144,7 @@ public class UserServiceImplTest {
         when(hashOperations.get("USERS", "USER" + id)).thenReturn(null);
         when(userRepository.findById(id)).thenReturn(Optional.empty());
 
-        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate);
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
 
         assertThrows(UsernameNotFoundException.class, () -> service.getUserDetails(id));
 
@@ -137,7 +160,7 @@ public class UserServiceImplTest {
         when(redisTemplate.opsForHash()).thenReturn(hashOperations);
         when(hashOperations.get("USERS", "USER" + id)).thenReturn("not-a-dto");
 
-        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate);
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
 
         assertThrows(ClassCastException.class, () -> service.getUserDetails(id));
 
@@ -146,18 +169,214 @@ public class UserServiceImplTest {
     }
 
     @Test
-    void testGetUserDetails_RedisGetFailure_PropagatesAndSkipsRepository() {
+    void testGetUserDetails_RedisGetFailure_FallsBackToRepository() throws Exception {
         String id = "888";
+        User user = new User();
+        user.setId(id);
+        user.setUsername("bob");
+        user.setEmail("bob@example.com");
 
         when(redisTemplate.opsForHash()).thenReturn(hashOperations);
         when(hashOperations.get("USERS", "USER" + id)).thenThrow(new RuntimeException("Redis failure"));
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        UserResponseDto result = service.getUserDetails(id);
+
+        assertEquals("bob", result.getName());
+        verify(userRepository).findById(id);
+        assertEquals(1, redisCircuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void testListUsers_ReturnsCursorThatSeeksPastLastRow() {
+        when(userRepository.findPageAfter("", Limit.of(3))).thenReturn(List.of(
+                new UserResponseDto("a", "ann", "ann@example.com"),
+                new UserResponseDto("b", "bob", "bob@example.com"),
+                new UserResponseDto("c", "cat", "cat@example.com")));
+        when(userRepository.findPageAfter("b", Limit.of(3))).thenReturn(List.of(
+                new UserResponseDto("c", "cat", "cat@example.com")));
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        UserPageResponseDto first = service.listUsers(null, 2);
+        assertEquals(2, first.getUsers().size());
+        assertNotNull(first.getNextCursor());
+
+        UserPageResponseDto second = service.listUsers(first.getNextCursor(), 2);
+        assertEquals(1, second.getUsers().size());
+        assertEquals("c", second.getUsers().get(0).getId());
+        assertNull(second.getNextCursor());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testSearchUsers_EscapesPrefixAndCarriesSortKeyInCursor() {
+        when(userRepository.findByUsernamePrefixAfter("a\\_%", "", "", Limit.of(2))).thenReturn(List.of(
+                new UserResponseDto("9", "a_one", "one@example.com"),
+                new UserResponseDto("3", "a_two", "two@example.com")));
+        when(userRepository.findByUsernamePrefixAfter("a\\_%", "a_one", "9", Limit.of(2))).thenReturn(List.of(
+                new UserResponseDto("3", "a_two", "two@example.com")));
 
-        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate);
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
 
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.getUserDetails(id));
-        assertEquals("Redis failure", ex.getMessage());
+        UserPageResponseDto first = service.searchUsers("a_", null, null, 1);
+        UserPageResponseDto second = service.searchUsers("a_", null, first.getNextCursor(), 1);
 
+        assertEquals("9", first.getUsers().get(0).getId());
+        assertEquals("3", second.getUsers().get(0).getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testSearchUsers_RejectsBothPrefixesAndMalformedCursor() {
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        assertThrows(InvalidPageRequestException.class, () -> service.searchUsers("a", "b", null, 10));
+        assertThrows(InvalidPageRequestException.class, () -> service.searchUsers(" ", null, null, 10));
+        assertThrows(InvalidPageRequestException.class, () -> service.listUsers("%%%", 10));
+        assertThrows(InvalidPageRequestException.class, () -> service.listUsers("bm8tc2VwYXJhdG9y", 10));
+        assertThrows(InvalidPageRequestException.class, () -> service.listUsers(null, 0));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testGetVersionedUserDetails_DerivesStrongETagFromIdAndTimestamp() throws Exception {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+        long millis = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        when(userRepository.findVersionedById("1"))
+                .thenReturn(Optional.of(new VersionedUserDto("1", "ann", "ann@example.com", updatedAt)));
+        when(userRepository.findVersionedById("2"))
+                .thenReturn(Optional.of(new VersionedUserDto("2", "bob", "bob@example.com", updatedAt)));
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        UserVersionDto first = service.getVersionedUserDetails("1").getVersion();
+        UserVersionDto second = service.getVersionedUserDetails("2").getVersion();
+
+        assertEquals(millis, first.getLastModified());
+        assertTrue(first.getEtag().startsWith("\"") && first.getEtag().endsWith("\""));
+        assertNotEquals(first.getEtag(), second.getEtag());
+    }
+
+    @Test
+    void testGetVersionedUserDetails_IgnoresStaleUsersHashEntry() throws Exception {
+        // A write made around this service: the USERS hash still holds the old name.
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(hashOperations.get("USERS", "USER1")).thenReturn(new UserResponseDto("1", "old-name", "old@example.com"));
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 15, 31);
+        when(userRepository.findVersionedById("1"))
+                .thenReturn(Optional.of(new VersionedUserDto("1", "new-name", "new@example.com", updatedAt)));
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        VersionedUserDto result = service.getVersionedUserDetails("1");
+
+        assertEquals("new-name", result.getUser().getName());
+        assertEquals("new@example.com", result.getUser().getEmail());
+        assertEquals(UserVersionDto.of("1", updatedAt).getEtag(), result.getVersion().getEtag());
+        verifyNoInteractions(redisTemplate);
+        verify(userRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testGetVersionedUserDetails_FollowsEveryWriteToTheRow() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+        when(userRepository.findVersionedById("1")).thenReturn(
+                Optional.of(new VersionedUserDto("1", "ann", "ann@example.com", createdAt)),
+                Optional.of(new VersionedUserDto("1", "ann2", "ann@example.com", createdAt.plusSeconds(1))));
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        VersionedUserDto before = service.getVersionedUserDetails("1");
+        VersionedUserDto after = service.getVersionedUserDetails("1");
+
+        assertNotEquals(before.getVersion().getEtag(), after.getVersion().getEtag());
+        assertTrue(after.getVersion().getLastModified() > before.getVersion().getLastModified());
+        assertEquals("ann2", after.getUser().getName());
+    }
+
+    @Test
+    void testGetVersionedUserDetails_UserNotFound_Throws() {
+        when(userRepository.findVersionedById("404")).thenReturn(Optional.empty());
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        assertThrows(UsernameNotFoundException.class, () -> service.getVersionedUserDetails("404"));
+    }
+
+    @Test
+    void testGetUsersDetails_MultiGetsCacheAndLoadsOnlyMissesInOneQuery() {
+        UserResponseDto cached = new UserResponseDto("1", "ann", "ann@example.com");
+        UserResponseDto loaded = new UserResponseDto("2", "bob", "bob@example.com");
+
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet("USERS", List.of("USER1", "USER2", "USER3")))
+                .thenReturn(Arrays.asList(cached, null, null));
+        when(userRepository.findResponsesByIdIn(List.of("2", "3"))).thenReturn(List.of(loaded));
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, redisCircuitBreaker);
+
+        List<UserResponseDto> result = service.getUsersDetails(List.of("1", "2", "1", "3"));
+
+        assertEquals(List.of(cached, loaded), result);
+        verify(hashOperations).putAll("USERS", Map.of("USER2", loaded));
+        verify(userRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testGetUserDetails_SlowRedisOpensBreakerAndServesFromDatabaseWithoutCacheWrites() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.of("redis", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .slowCallDurationThreshold(Duration.ofMillis(10))
+                .slowCallRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        User user = new User();
+        user.setId("1");
+        user.setUsername("ann");
+        user.setEmail("ann@example.com");
+
+        // Stand-in for a Redis instance that answers, but far past the slow-call threshold.
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.get("USERS", "USER1")).thenAnswer(invocation -> {
+            Thread.sleep(30);
+            return null;
+        });
+        when(userRepository.findById("1")).thenReturn(Optional.of(user));
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, breaker);
+
+        service.getUserDetails("1");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        clearInvocations(hashOperations);
+
+        UserResponseDto result = service.getUserDetails("1");
+
+        assertEquals("ann", result.getName());
+        verifyNoInteractions(hashOperations);
+        assertTrue(breaker.getMetrics().getNumberOfNotPermittedCalls() >= 2);
+    }
+
+    @Test
+    void testGetUserDetails_HalfOpenProbeClosesBreakerOnceRedisRecovers() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.of("redis", CircuitBreakerConfig.custom()
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build());
+        UserResponseDto cached = new UserResponseDto("1", "ann", "ann@example.com");
+        breaker.transitionToOpenState();
+        breaker.transitionToHalfOpenState();
+
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.get("USERS", "USER1")).thenReturn(cached);
+
+        UserServiceImpl service = new UserServiceImpl(userRepository, redisTemplate, eventPublisher, breaker);
+
+        assertSame(cached, service.getUserDetails("1"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
         verify(userRepository, never()).findById(anyString());
-        verify(hashOperations, never()).put(any(), any(), any());
     }
-}
\ No newline at end of file
+}
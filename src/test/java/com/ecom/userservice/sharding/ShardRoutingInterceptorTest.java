@@ -0,0 +1,141 @@
+package com.ecom.userservice.sharding;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.models.User;
+import com.ecom.userservice.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.domain.Limit;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShardRoutingInterceptorTest {
+
+    private static final int SHARDS = 3;
+
+    @Mock
+    private UserRepository target;
+
+    @Mock
+    private UserLookupIndex lookupIndex;
+
+    private ShardRoutingInterceptor interceptor;
+    private UserRepository repository;
+    private final List<Integer> shardsSeen = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setup() {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) dataSources.add(mock(DataSource.class));
+        interceptor = new ShardRoutingInterceptor(new ShardRouter(dataSources), lookupIndex, true);
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(UserRepository.class);
+        proxyFactory.addAdvice(interceptor);
+        repository = (UserRepository) proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void teardown() {
+        interceptor.destroy();
+    }
+
+    @Test
+    void testFindById_RunsOnlyOnTheIdsShard() {
+        when(target.findById("user-42")).thenAnswer(invocation -> {
+            shardsSeen.add(ShardContext.current());
+            return Optional.empty();
+        });
+
+        repository.findById("user-42");
+
+        assertEquals(List.of(ShardRouter.shardFor("user-42", SHARDS)), shardsSeen);
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    void testSave_IndexesLookupThenWritesToOwningShard() {
+        User user = new User("user-7", "ann", "ann@example.com", new ArrayList<>());
+        when(target.save(user)).thenAnswer(invocation -> {
+            shardsSeen.add(ShardContext.current());
+            return user;
+        });
+
+        repository.save(user);
+
+        verify(lookupIndex).index("user-7", "ann", "ann@example.com");
+        assertEquals(List.of(ShardRouter.shardFor("user-7", SHARDS)), shardsSeen);
+    }
+
+    @Test
+    void testExistsByEmail_AnsweredFromLookupIndexWithoutTouchingShards() {
+        when(lookupIndex.existsByEmail("ann@example.com")).thenReturn(true);
+
+        assertTrue(repository.existsByEmail("ann@example.com"));
+        assertFalse(repository.existsByEmail("nobody@example.com"));
+
+        verifyNoInteractions(target);
+    }
+
+    @Test
+    void testFindByUsername_RoutesThroughLookupIndex() {
+        User user = new User("user-9", "bob", "bob@example.com", new ArrayList<>());
+        when(lookupIndex.findUserIdByUsername("bob")).thenReturn(Optional.of("user-9"));
+        when(target.findByUsername("bob")).thenAnswer(invocation -> {
+            shardsSeen.add(ShardContext.current());
+            return Optional.of(user);
+        });
+
+        assertSame(user, repository.findByUsername("bob").orElseThrow());
+        assertEquals(List.of(ShardRouter.shardFor("user-9", SHARDS)), shardsSeen);
+    }
+
+    @Test
+    void testFindResponsesByIdIn_SplitsIdsPerShard() {
+        List<String> ids = List.of("a", "b", "c", "d", "e", "f");
+        when(target.findResponsesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> shardIds = invocation.getArgument(0);
+            for (String id : shardIds) {
+                assertEquals(ShardRouter.shardFor(id, SHARDS), ShardContext.current());
+            }
+            return shardIds.stream().map(id -> new UserResponseDto(id, id, id)).toList();
+        });
+
+        List<UserResponseDto> found = repository.findResponsesByIdIn(ids);
+
+        assertEquals(ids.size(), found.size());
+    }
+
+    @Test
+    void testFindPageAfter_MergesShardPagesInIdOrder() {
+        when(target.findPageAfter("", Limit.of(3))).thenAnswer(invocation -> switch (ShardContext.current()) {
+            case 0 -> List.of(new UserResponseDto("b", "b", "b"), new UserResponseDto("e", "e", "e"));
+            case 1 -> List.of(new UserResponseDto("a", "a", "a"), new UserResponseDto("f", "f", "f"));
+            default -> List.of(new UserResponseDto("c", "c", "c"));
+        });
+
+        List<UserResponseDto> page = repository.findPageAfter("", Limit.of(3));
+
+        assertEquals(List.of("a", "b", "c"), page.stream().map(UserResponseDto::getId).toList());
+    }
+
+    @Test
+    void testCount_SumsAcrossShards() {
+        when(target.count()).thenReturn(2L);
+
+        assertEquals(2L * SHARDS, repository.count());
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecom.userservice.sharding;
+
+import com.ecom.userservice.dtos.UserResponseDto;
+import com.ecom.userservice.models.User;
+import com.ecom.userservice.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// UserRepository on top of two embedded shards through the routing datasource. Each call
+// commits on its own: a test transaction would hold a shard 0 connection for the whole test.
+// IGNORECASE stands in for MySQL's case-insensitive utf8mb4_0900_ai_ci.
+@DataJpaTest(properties = {
+        "userservice.sharding.enabled=true",
+        "userservice.sharding.initialize-schema=true",
+        "userservice.sharding.shards[0].url=jdbc:h2:mem:sharded-repository-0;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "userservice.sharding.shards[0].username=sa",
+        "userservice.sharding.shards[1].url=jdbc:h2:mem:sharded-repository-1;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "userservice.sharding.shards[1].username=sa",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardedUserRepositoryTest {
+
+    private static final List<String> IDS = List.of("u1", "u2", "u3", "u4", "u5", "u6");
+
+    @TestConfiguration
+    @EnableConfigurationProperties(ShardingProperties.class)
+    @Import(ShardingConfiguration.class)
+    static class ShardingTestConfiguration {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private Environment environment;
+
+    @AfterEach
+    void cleanup() {
+        userRepository.deleteAllById(IDS);
+    }
+
+    @Test
+    void testOpenInView_IsDisabledWhenShardingIsEnabled() {
+        assertThat(environment.getProperty("spring.jpa.open-in-view")).isEqualTo("false");
+    }
+
+    @Test
+    void testSaveAndFind_EachUserIsReadBackFromItsOwnShard() {
+        userRepository.save(new User("u1", "one", "one@example.com", new ArrayList<>()));
+        userRepository.save(new User("u2", "two", "two@example.com", new ArrayList<>()));
+
+        assertThat(shardRouter.shardFor("u1")).isNotEqualTo(shardRouter.shardFor("u2"));
+        assertThat(userRepository.findById("u1")).get().extracting(User::getUsername).isEqualTo("one");
+        assertThat(userRepository.findById("u2")).get().extracting(User::getUsername).isEqualTo("two");
+        assertThat(userRepository.findByUsername("two")).get().extracting(User::getId).isEqualTo("u2");
+        assertThat(userRepository.existsByEmail("one@example.com")).isTrue();
+        // Uniqueness checks ignore case, as they do without sharding.
+        assertThat(userRepository.existsByEmail("ONE@example.com")).isTrue();
+        assertThat(userRepository.existsByUsername("Two")).isTrue();
+        assertThat(userRepository.findLastModifiedById("u2")).isPresent();
+        assertThat(userRepository.findAllById(List.of("u1", "u2"))).hasSize(2);
+    }
+
+    @Test
+    void testKeysetPages_MergeMixedCaseUsernamesAcrossShardsInCollationOrder() {
+        // u1, u3, u5 hash to shard 1 and u2, u4, u6 to shard 0, so both shards hold both cases.
+        userRepository.save(new User("u1", "Bob", "Bob@example.com", new ArrayList<>()));
+        userRepository.save(new User("u2", "bob", "bob@example.com", new ArrayList<>()));
+        userRepository.save(new User("u3", "alice", "alice@example.com", new ArrayList<>()));
+        userRepository.save(new User("u4", "Alice", "Alice@example.com", new ArrayList<>()));
+        userRepository.save(new User("u5", "Carol", "Carol@example.com", new ArrayList<>()));
+        userRepository.save(new User("u6", "carol", "carol@example.com", new ArrayList<>()));
+
+        for (String id : IDS) {
+            int shard = shardRouter.shardFor(id);
+            assertThat(new JdbcTemplate(shardRouter.dataSource(shard))
+                    .queryForObject("select count(*) from users where id = ?", Integer.class, id))
+                    .as("%s on shard %d", id, shard).isEqualTo(1);
+        }
+        assertThat(IDS.stream().map(shardRouter::shardFor).distinct()).hasSize(2);
+
+        List<String> usernames = new ArrayList<>();
+        String afterUsername = "";
+        String afterId = "";
+        List<UserResponseDto> page;
+        do {
+            page = userRepository.findByUsernamePrefixAfter("%", afterUsername, afterId, Limit.of(2));
+            page.forEach(user -> usernames.add(user.getName()));
+            if (!page.isEmpty()) {
+                afterUsername = page.get(page.size() - 1).getName();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        // Case-insensitive order; names that differ only in case are ordered by id.
+        assertThat(usernames).containsExactly("alice", "Alice", "Bob", "bob", "Carol", "carol");
+        assertThat(userRepository.findByUsernamePrefixAfter("ali%", "", "", Limit.of(10)))
+                .extracting(UserResponseDto::getId).containsExactly("u3", "u4");
+
+        List<String> ids = new ArrayList<>();
+        String after = "";
+        do {
+            page = userRepository.findPageAfter(after, Limit.of(4));
+            page.forEach(user -> ids.add(user.getId()));
+            if (!page.isEmpty()) after = page.get(page.size() - 1).getId();
+        } while (page.size() == 4);
+
+        assertThat(ids).containsExactlyElementsOf(IDS);
+    }
+}
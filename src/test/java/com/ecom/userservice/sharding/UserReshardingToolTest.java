@@ -0,0 +1,122 @@
+package com.ecom.userservice.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserReshardingToolTest {
+
+    private static DataSource embeddedShard() {
+        return new DriverManagerDataSource("jdbc:h2:mem:shard-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static List<DataSource> shards(int count) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) shards.add(embeddedShard());
+        return shards;
+    }
+
+    private static void insertUser(DataSource shard, String id, LocalDateTime updatedAt) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+        jdbcTemplate.update("insert into users (id, username, email, created_at, updated_at) values (?, ?, ?, ?, ?)",
+                id, "name-" + id, id + "@example.com", Timestamp.valueOf(updatedAt), Timestamp.valueOf(updatedAt));
+        jdbcTemplate.update("insert into address (id, street, city, user_id) values (?, ?, ?, ?)",
+                "addr-" + id, "Main St", "Springfield", id);
+    }
+
+    private static List<String> ids(DataSource shard) {
+        return new JdbcTemplate(shard).queryForList("select id from users order by id", String.class);
+    }
+
+    @Test
+    void testCopyAndCleanup_MovesEveryUserToItsShardInTheNewLayout() {
+        List<DataSource> oldLayout = shards(2);
+        // The new layout keeps the old databases and adds a third one.
+        List<DataSource> newLayout = new ArrayList<>(oldLayout);
+        newLayout.add(embeddedShard());
+        new UserReshardingTool(oldLayout, oldLayout, 10).prepareTargets();
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String id = "user-" + i;
+            userIds.add(id);
+            insertUser(oldLayout.get(ShardRouter.shardFor(id, 2)), id, now);
+        }
+
+        UserReshardingTool tool = new UserReshardingTool(oldLayout, newLayout, 7);
+        tool.prepareTargets();
+        long written = tool.copy();
+        long removed = tool.removeMisplaced();
+
+        long moved = userIds.stream().filter(id -> ShardRouter.shardFor(id, 2) != ShardRouter.shardFor(id, 3)).count();
+        assertEquals(moved, written);
+        assertEquals(moved, removed);
+        int total = 0;
+        for (int s = 0; s < 3; s++) {
+            for (String id : ids(newLayout.get(s))) {
+                assertEquals(s, ShardRouter.shardFor(id, 3), id + " is on the wrong shard");
+                total++;
+            }
+            Integer orphanAddresses = new JdbcTemplate(newLayout.get(s)).queryForObject(
+                    "select count(*) from address a where not exists (select 1 from users u where u.id = a.user_id)", Integer.class);
+            assertEquals(0, orphanAddresses);
+        }
+        assertEquals(50, total);
+
+        UserLookupIndex lookupIndex = new UserLookupIndex(newLayout.get(0));
+        assertEquals("user-17", lookupIndex.findUserIdByUsername("name-user-17").orElseThrow());
+        assertTrue(lookupIndex.existsByEmail("user-33@example.com"));
+    }
+
+    @Test
+    void testCopy_IsIdempotentAndOnlyOverwritesWithNewerRows() {
+        List<DataSource> source = shards(1);
+        List<DataSource> target = shards(1);
+        new UserReshardingTool(source, source, 10).prepareTargets();
+        UserReshardingTool tool = new UserReshardingTool(source, target, 10);
+        tool.prepareTargets();
+
+        LocalDateTime then = LocalDateTime.of(2024, 1, 1, 12, 0);
+        insertUser(source.get(0), "u1", then);
+
+        assertEquals(1, tool.copy());
+        assertEquals(0, tool.copy());
+
+        // A write landing on the old layout between passes is picked up by the next pass.
+        new JdbcTemplate(source.get(0)).update("update users set email = ?, updated_at = ? where id = ?",
+                "new@example.com", Timestamp.valueOf(then.plusMinutes(5)), "u1");
+        assertEquals(1, tool.copy());
+        assertEquals("new@example.com", new JdbcTemplate(target.get(0))
+                .queryForObject("select email from users where id = ?", String.class, "u1"));
+
+        // Once the target has moved past the source, a stale pass neither overwrites the row nor
+        // points the lookup index back at the old username.
+        new JdbcTemplate(target.get(0)).update("update users set username = ?, updated_at = ? where id = ?",
+                "renamed", Timestamp.valueOf(then.plusMinutes(10)), "u1");
+        assertEquals(0, tool.copy());
+        assertEquals("renamed", new JdbcTemplate(target.get(0))
+                .queryForObject("select username from users where id = ?", String.class, "u1"));
+        UserLookupIndex lookupIndex = new UserLookupIndex(target.get(0));
+        assertEquals("u1", lookupIndex.findUserIdByUsername("renamed").orElseThrow());
+        assertFalse(lookupIndex.existsByUsername("name-u1"));
+        assertTrue(lookupIndex.existsByEmail("new@example.com"));
+    }
+
+    @Test
+    void testShardFor_IsStableAndSpreadsIds() {
+        assertEquals(ShardRouter.shardFor("abc", 4), ShardRouter.shardFor("abc", 4));
+        int[] counts = new int[4];
+        for (int i = 0; i < 4000; i++) counts[ShardRouter.shardFor(UUID.randomUUID().toString(), 4)]++;
+        for (int count : counts) assertTrue(count > 800, "uneven distribution " + count);
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecom.userservice.warmup;
+
+import com.ecom.userservice.security.JwtAuthenticationFilter;
+import com.ecom.userservice.security.JwtProperties;
+import com.ecom.userservice.security.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JitWarmupTest {
+
+    @Mock
+    private ApplicationInfoManager applicationInfoManager;
+
+    private final WarmupProperties properties = new WarmupProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JitWarmup jitWarmup;
+
+    @BeforeEach
+    void setup() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("warmup-test-secret-with-at-least-32-bytes");
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        RedisTemplate<String, byte[]> userResponseRedisTemplate = new RedisTemplate<>();
+        userResponseRedisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        userResponseRedisTemplate.setHashValueSerializer(RedisSerializer.byteArray());
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of(
+                "applicationInfoManager", applicationInfoManager, "meterRegistry", meterRegistry));
+        jitWarmup = new JitWarmup(properties, new JwtAuthenticationFilter(new JwtService(jwtProperties)), jwtProperties,
+                redisTemplate, userResponseRedisTemplate, new ObjectMapper(),
+                beans.getBeanProvider(ApplicationInfoManager.class), beans.getBeanProvider(MeterRegistry.class),
+                beans.getBeanProvider(LoggingSystem.class));
+    }
+
+    @Test
+    void testWarmUpAndGoLive_RunsAllIterationsThenReportsUp() {
+        properties.setIterations(300);
+
+        jitWarmup.warmUpAndGoLive();
+
+        verify(applicationInfoManager).setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+        assertEquals(1, meterRegistry.get("userservice.warmup.duration").tag("outcome", "completed").timer().count());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testWarmUp_StopsAtTimeBudget() {
+        properties.setIterations(Integer.MAX_VALUE);
+        properties.setTimeBudget(Duration.ofMillis(200));
+
+        int completed = jitWarmup.warmUp();
+
+        assertTrue(completed > 0);
+        assertEquals(1, meterRegistry.get("userservice.warmup.duration").tag("outcome", "time-budget").timer().count());
+    }
+
+    @Test
+    void testInMemoryRedisTemplate_AnswersOtherOperationsWithNeutralValues() {
+        RedisTemplate<String, Object> serializers = new RedisTemplate<>();
+        serializers.setHashKeySerializer(new StringRedisSerializer());
+        serializers.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        HashOperations<String, Object, Object> hash = WarmupStubs.inMemoryRedisTemplate(serializers).opsForHash();
+
+        hash.put("USERS", "id", "value");
+
+        assertFalse(hash.hasKey("USERS", "id"));
+        assertTrue(hash.keys("USERS").isEmpty());
+        assertTrue(hash.entries("USERS").isEmpty());
+        assertEquals(0L, hash.delete("USERS", "id"));
+        assertEquals("value", hash.get("USERS", "id"));
+    }
+
+    @Test
+    void testWarmUpAndGoLive_GoesUpImmediatelyWhenDisabled() {
+        properties.setEnabled(false);
+
+        jitWarmup.warmUpAndGoLive();
+
+        verify(applicationInfoManager).setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+}